@@ -0,0 +1,106 @@
+package com.rmv.opk.benchmarks;
+
+import com.rmv.opk.checkers.CharacterTypeChecker;
+import com.rmv.opk.checkers.StringTypeChecker;
+import com.rmv.opk.constants.Keywords;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckerBenchmark {
+  private static final int SIZE = 4096;
+
+  private final char[] characters = new char[SIZE];
+  private final String[] identifiers = new String[SIZE];
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    String alphabet = "abcdefxyzABCDEF0123456789+-*/=<>(){};,. \n_";
+    for (int i = 0; i < SIZE; i++) {
+      characters[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+    }
+    String[] words = {"value", "i", "ToString", "int", "return", "while", "null", "HeapSort"};
+    for (int i = 0; i < SIZE; i++) {
+      identifiers[i] = words[random.nextInt(words.length)];
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public int isHex() {
+    int count = 0;
+    for (char character : characters) {
+      if (CharacterTypeChecker.isHex(character)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public int isHexRegexBaseline() {
+    int count = 0;
+    for (char character : characters) {
+      if (Pattern.matches("\\d|[a-fA-F]", Character.toString(character))) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public int isOperatorOrSeparator() {
+    int count = 0;
+    for (char character : characters) {
+      if (CharacterTypeChecker.isOperator(character) || CharacterTypeChecker.isSeparator(character)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public int isKeyword() {
+    int count = 0;
+    for (String identifier : identifiers) {
+      if (StringTypeChecker.isKeyword(identifier)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public int isKeywordListBaseline() {
+    int count = 0;
+    for (String identifier : identifiers) {
+      if (Keywords.getKeywordsList().contains(identifier)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
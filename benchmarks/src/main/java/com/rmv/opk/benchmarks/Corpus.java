@@ -0,0 +1,108 @@
+package com.rmv.opk.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public enum Corpus {
+  IDENTIFIERS {
+    @Override
+    String generate(Random random) {
+      String[] words = {"value", "i", "ToString", "count", "HeapSort", "comparer", "int", "return"};
+      StringBuilder text = new StringBuilder(TARGET_SIZE + 64);
+      while (text.length() < TARGET_SIZE) {
+        text.append(words[random.nextInt(words.length)]).append(random.nextInt(4) == 0 ? ".\n" : " ");
+      }
+      return text.toString();
+    }
+  },
+  STRING_LITERALS {
+    @Override
+    String generate(Random random) {
+      StringBuilder text = new StringBuilder(TARGET_SIZE + 512);
+      while (text.length() < TARGET_SIZE) {
+        text.append("var s = \"");
+        int length = 64 + random.nextInt(256);
+        for (int i = 0; i < length; i++) {
+          text.append((char) ('a' + random.nextInt(26)));
+        }
+        text.append("\";\n");
+      }
+      return text.toString();
+    }
+  },
+  BLOCK_COMMENTS {
+    @Override
+    String generate(Random random) {
+      StringBuilder text = new StringBuilder(TARGET_SIZE + 4096);
+      while (text.length() < TARGET_SIZE) {
+        text.append("/*\n");
+        int lines = 10 + random.nextInt(40);
+        for (int i = 0; i < lines; i++) {
+          text.append(" * Licensed under the Apache License, Version 2.0 (the \"License\");\n");
+        }
+        text.append(" */\nclass C { }\n");
+      }
+      return text.toString();
+    }
+  },
+  NUMERIC_TABLE {
+    @Override
+    String generate(Random random) {
+      StringBuilder text = new StringBuilder(TARGET_SIZE + 128);
+      while (text.length() < TARGET_SIZE) {
+        text.append("{ ")
+            .append(random.nextInt(100000))
+            .append(", 0x")
+            .append(Integer.toHexString(random.nextInt()))
+            .append(", ")
+            .append(random.nextInt(1000))
+            .append('.')
+            .append(random.nextInt(1000))
+            .append("f, 0b1011L },\n");
+      }
+      return text.toString();
+    }
+  },
+  CSHARP_SAMPLE {
+    @Override
+    String generate(Random random) {
+      return repeat(resource("/csharp.cs"));
+    }
+  },
+  CORNER_CASES {
+    @Override
+    String generate(Random random) {
+      return repeat(resource("/csharp_corner_cases.cs"));
+    }
+  };
+
+  static final int TARGET_SIZE = 1 << 20;
+
+  abstract String generate(Random random);
+
+  public String text() {
+    return generate(new Random(42));
+  }
+
+  private static String repeat(String text) {
+    StringBuilder result = new StringBuilder(TARGET_SIZE + text.length());
+    while (result.length() < TARGET_SIZE) {
+      result.append(text).append('\n');
+    }
+    return result.toString();
+  }
+
+  private static String resource(String name) {
+    try (InputStream stream = Corpus.class.getResourceAsStream(name)) {
+      if (stream == null) {
+        throw new IllegalStateException("Missing benchmark resource " + name);
+      }
+      return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
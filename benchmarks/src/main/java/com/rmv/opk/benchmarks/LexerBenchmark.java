@@ -0,0 +1,88 @@
+package com.rmv.opk.benchmarks;
+
+import com.rmv.opk.LexerEngine;
+import com.rmv.opk.Tokenizer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexerBenchmark {
+  @Param({
+    "IDENTIFIERS",
+    "STRING_LITERALS",
+    "BLOCK_COMMENTS",
+    "NUMERIC_TABLE",
+    "CSHARP_SAMPLE",
+    "CORNER_CASES"
+  })
+  public Corpus corpus;
+
+  @Param({"STATE_MACHINE", "TABLE_DRIVEN"})
+  public LexerEngine engine;
+
+  private String text;
+  private CharBuffer chars;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    text = corpus.text();
+    chars = CharBuffer.wrap(text.toCharArray());
+  }
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Throughput {
+    public long characters;
+    public long tokens;
+  }
+
+  @Benchmark
+  public void getTokensFromReader(Throughput throughput, Blackhole blackhole) throws IOException {
+    Tokenizer tokenizer = engine.create();
+    int tokens = tokenizer.getTokens(new StringReader(text)).size();
+    throughput.characters += text.length();
+    throughput.tokens += tokens;
+    blackhole.consume(tokens);
+  }
+
+  @Benchmark
+  public void getTokensFromCharArray(Throughput throughput, Blackhole blackhole) {
+    Tokenizer tokenizer = engine.create();
+    int tokens = tokenizer.getTokens(chars.duplicate()).size();
+    throughput.characters += text.length();
+    throughput.tokens += tokens;
+    blackhole.consume(tokens);
+  }
+
+  @Benchmark
+  public void getTokenSpans(Throughput throughput, Blackhole blackhole) {
+    Tokenizer tokenizer = engine.create();
+    int[] tokens = new int[1];
+    tokenizer.getTokenSpans(chars.duplicate(), (type, start, length) -> tokens[0]++);
+    throughput.characters += text.length();
+    throughput.tokens += tokens[0];
+    blackhole.consume(tokens[0]);
+  }
+}
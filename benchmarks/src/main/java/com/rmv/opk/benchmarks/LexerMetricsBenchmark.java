@@ -0,0 +1,52 @@
+package com.rmv.opk.benchmarks;
+
+import com.rmv.opk.Lexer;
+import com.rmv.opk.metrics.LexerMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexerMetricsBenchmark {
+  @Param({"CSHARP_SAMPLE", "IDENTIFIERS"})
+  public Corpus corpus;
+
+  @Param({"false", "true"})
+  public boolean metricsEnabled;
+
+  private CharBuffer chars;
+  private Lexer lexer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    chars = CharBuffer.wrap(corpus.text().toCharArray());
+    lexer = new Lexer();
+    if (metricsEnabled) {
+      lexer.setListener(new LexerMetrics());
+    }
+  }
+
+  @Benchmark
+  public int getTokenSpans() {
+    int[] tokens = new int[1];
+    lexer.getTokenSpans(chars.duplicate(), (type, start, length) -> tokens[0]++);
+    return tokens[0];
+  }
+}
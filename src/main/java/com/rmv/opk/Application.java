@@ -1,12 +1,37 @@
 package com.rmv.opk;
 
-import java.io.File;
+import com.rmv.opk.batch.BatchLexer;
+import com.rmv.opk.server.LexerServer;
+
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 public class Application {
+  private static final int DEFAULT_SERVER_PORT = 8765;
+
   public static void main(String[] args) throws IOException {
-    LexerFileTokensProcessor.processFile("csharp.cs");
-    System.out.println("\n------\n");
-    LexerFileTokensProcessor.processFile("csharp_corner_cases.cs");
+    if (args.length == 0) {
+      LexerFileTokensProcessor.processFile("csharp.cs");
+      System.out.println("\n------\n");
+      LexerFileTokensProcessor.processFile("csharp_corner_cases.cs");
+      return;
+    }
+    if (args[0].equals("--serve")) {
+      int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT;
+      LexerServer server = LexerServer.builder().port(port).build();
+      System.out.println("Listening on " + server.start());
+      return;
+    }
+    BatchLexer batchLexer = BatchLexer.builder().build();
+    for (String arg : args) {
+      Path path = Path.of(arg);
+      if (Files.isDirectory(path)) {
+        System.out.println(path + ": " + batchLexer.lexTree(path, null));
+      } else {
+        System.out.println(path + ": " + batchLexer.lex(List.of(path), null));
+      }
+    }
   }
 }
@@ -0,0 +1,23 @@
+package com.rmv.opk;
+
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+public interface CharScanner {
+  int indexOf(char[] chars, int from, int to, char target);
+
+  int indexOfLineBreakCandidate(char[] chars, int from, int to);
+
+  int indexOfNonWhitespace(char[] chars, int from, int to);
+
+  static CharScanner load() {
+    try {
+      for (CharScanner scanner : ServiceLoader.load(CharScanner.class)) {
+        return scanner;
+      }
+    } catch (ServiceConfigurationError | LinkageError e) {
+      // The accelerated scanner needs modules that are not available in this runtime.
+    }
+    return ScalarCharScanner.INSTANCE;
+  }
+}
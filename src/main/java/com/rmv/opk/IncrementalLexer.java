@@ -0,0 +1,104 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.State;
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.entity.TokenChange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class IncrementalLexer {
+  private static final int INITIAL = State.INITIAL.ordinal();
+
+  private final StringBuilder text;
+  private final List<Token> tokens = new ArrayList<>();
+  private final SyncPoints syncPoints = new SyncPoints();
+
+  public IncrementalLexer(CharSequence source) {
+    text = new StringBuilder(source);
+    syncPoints.add(0, INITIAL, 0);
+    Lexer lexer = new Lexer();
+    lexer.beginAt(0, tokens);
+    for (int i = 0; i < text.length(); i++) {
+      lexer.accept(text.charAt(i));
+      if (lexer.isAtTokenBoundary()) {
+        syncPoints.add(i + 1, lexer.getState().ordinal(), tokens.size());
+      }
+    }
+    lexer.finish();
+  }
+
+  public String getText() {
+    return text.toString();
+  }
+
+  public List<Token> getTokens() {
+    return Collections.unmodifiableList(tokens);
+  }
+
+  public TokenChange applyEdit(int offset, int removedLength, CharSequence insertedText) {
+    if (offset < 0 || removedLength < 0 || offset + removedLength > text.length()) {
+      throw new IndexOutOfBoundsException(
+          "Edit [" + offset + ", " + (offset + removedLength) + ") is outside of the text of length "
+              + text.length());
+    }
+    int restart = syncPoints.firstAtOrAfter(offset + 1) - 1;
+    while (syncPoints.state(restart) != INITIAL) {
+      restart--;
+    }
+    int restartOffset = syncPoints.offset(restart);
+    int firstToken = syncPoints.tokenCount(restart);
+
+    text.replace(offset, offset + removedLength, insertedText.toString());
+    int editEnd = offset + insertedText.length();
+    int delta = insertedText.length() - removedLength;
+
+    List<Token> relexed = new ArrayList<>();
+    SyncPoints relexedPoints = new SyncPoints();
+    Lexer lexer = new Lexer();
+    lexer.beginAt(restartOffset, relexed);
+    int oldIndex = syncPoints.firstAtOrAfter(offset + removedLength);
+    for (int i = restartOffset; i < text.length(); i++) {
+      lexer.accept(text.charAt(i));
+      if (!lexer.isAtTokenBoundary()) {
+        continue;
+      }
+      int newOffset = i + 1;
+      int state = lexer.getState().ordinal();
+      if (newOffset >= editEnd) {
+        int oldOffset = newOffset - delta;
+        while (oldIndex < syncPoints.size() && syncPoints.offset(oldIndex) < oldOffset) {
+          oldIndex++;
+        }
+        if (oldIndex < syncPoints.size()
+            && syncPoints.offset(oldIndex) == oldOffset
+            && syncPoints.state(oldIndex) == state) {
+          return splice(restart, firstToken, relexed, relexedPoints, oldIndex, delta);
+        }
+      }
+      relexedPoints.add(newOffset, state, firstToken + relexed.size());
+    }
+    lexer.finish();
+    return splice(restart, firstToken, relexed, relexedPoints, syncPoints.size(), delta);
+  }
+
+  private TokenChange splice(
+      int restart,
+      int firstToken,
+      List<Token> relexed,
+      SyncPoints relexedPoints,
+      int convergedIndex,
+      int delta) {
+    int oldTokenEnd =
+        convergedIndex < syncPoints.size() ? syncPoints.tokenCount(convergedIndex) : tokens.size();
+    int removedTokenCount = oldTokenEnd - firstToken;
+    List<Token> replaced = tokens.subList(firstToken, oldTokenEnd);
+    replaced.clear();
+    replaced.addAll(relexed);
+
+    syncPoints.replace(
+        restart + 1, convergedIndex, relexedPoints, delta, relexed.size() - removedTokenCount);
+    return new TokenChange(firstToken, removedTokenCount, Collections.unmodifiableList(relexed));
+  }
+}
@@ -1,33 +1,516 @@
 package com.rmv.opk;
 
 import com.rmv.opk.checkers.CharacterTypeChecker;
-import com.rmv.opk.checkers.StringTypeChecker;
+import com.rmv.opk.checkers.KeywordMatcher;
 import com.rmv.opk.constants.State;
 import com.rmv.opk.constants.TokenType;
 import com.rmv.opk.entity.Token;
+import com.rmv.opk.entity.TokenSpan;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
+import java.util.Set;
 
-public class Lexer {
-  private final List<Token> tokens = new ArrayList<>();
+public class Lexer implements Tokenizer {
+  public static final int VERSION = 1;
+
+  private static final int MAX_RETAINED_BUFFER_CAPACITY = 1 << 16;
+  private static final int SCAN_CHUNK_SIZE = 8192;
+  private static final int TRUNCATION_SLACK = 1024;
+  private static final int TRUNCATED_TAIL_LENGTH = 2;
+  private static final CharScanner SCANNER = CharScanner.load();
+
+  private final Deque<Token> pendingTokens = new ArrayDeque<>();
+  private Collection<Token> tokens = pendingTokens;
   private StringBuilder buffer = new StringBuilder();
   private State state = State.INITIAL;
+  private TokenSpanSink spanSink;
+  private int position;
+  private int nextPosition;
+  private int tokenStart;
+  private boolean finishing;
+  private boolean sourceTokensOnly;
+  private final SymbolTable symbolTable;
+  private LexerListener listener;
+  private int startPosition;
+  private long startNanos;
+  private int skippedTypes;
+  private boolean coalesceWhitespace;
+  private final StringBuilder whitespaceRun = new StringBuilder();
+  private int whitespaceRunStart;
+  private int whitespaceRunEnd;
+  private boolean lineTracking;
+  private LineMap lineMap;
+  private int maxTokenLength = Integer.MAX_VALUE;
+  private int bufferLimit = Integer.MAX_VALUE;
+  private boolean truncated;
+  private Preprocessor preprocessor;
+  private boolean atLineStart = true;
+
+  public Lexer() {
+    this(null);
+  }
 
+  public Lexer(SymbolTable symbolTable) {
+    this.symbolTable = symbolTable;
+  }
+
+  @Override
   public List<Token> getTokens(Reader reader) throws IOException {
-    int lastReadInt;
-    while ((lastReadInt = reader.read()) != -1) {
-      Character character = (char) lastReadInt;
+    List<Token> result = new ArrayList<>();
+    try {
+      tokenStream(reader).forEachRemaining(result::add);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return result;
+  }
+
+  @Override
+  public List<Token> getTokens(CharSequence source) {
+    return getTokens(source, false);
+  }
+
+  @Override
+  public List<Token> getSourceTokens(CharSequence source) {
+    return getTokens(source, true);
+  }
+
+  private List<Token> getTokens(CharSequence source, boolean sourceTokensOnly) {
+    List<Token> result = new ArrayList<>();
+    begin(result, null);
+    this.sourceTokensOnly = sourceTokensOnly;
+    try {
+      scan(source);
+      finish();
+    } finally {
+      end();
+    }
+    return result;
+  }
+
+  public List<Token> getTokens(char[] source) {
+    return getTokens(CharBuffer.wrap(source));
+  }
+
+  public TokenStream tokenStream(Reader reader) {
+    begin(pendingTokens, null);
+    return new TokenStream(this, reader);
+  }
+
+  public List<TokenSpan> getTokenSpans(CharSequence source) {
+    List<TokenSpan> result = new ArrayList<>();
+    getTokenSpans(
+        source, (type, start, length) -> result.add(new TokenSpan(type, start, length, source)));
+    return result;
+  }
+
+  public TokenBuffer getTokenBuffer(CharSequence source) {
+    TokenBuffer tokenBuffer = new TokenBuffer(source);
+    getTokenSpans(source, tokenBuffer);
+    return tokenBuffer;
+  }
+
+  @Override
+  public void getTokenSpans(CharSequence source, TokenSpanSink sink) {
+    begin(pendingTokens, sink);
+    try {
+      scan(source);
+      finish();
+    } finally {
+      end();
+    }
+  }
+
+  public void reset() {
+    pendingTokens.clear();
+    tokens = pendingTokens;
+    spanSink = null;
+    state = State.INITIAL;
+    position = 0;
+    tokenStart = 0;
+    startPosition = 0;
+    finishing = false;
+    sourceTokensOnly = false;
+    whitespaceRun.setLength(0);
+    truncated = false;
+    atLineStart = true;
+    if (preprocessor != null) {
+      preprocessor.reset();
+    }
+    lineMap = lineTracking ? new LineMap() : null;
+    if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+      buffer = new StringBuilder();
+    } else {
+      buffer.setLength(0);
+    }
+  }
+
+  void end() {
+    tokens = pendingTokens;
+    spanSink = null;
+  }
+
+  public void setListener(LexerListener listener) {
+    this.listener = listener;
+  }
+
+  public void setSkippedTypes(Set<TokenType> types) {
+    skippedTypes = 0;
+    for (TokenType type : types) {
+      skippedTypes |= 1 << type.ordinal();
+    }
+  }
+
+  public void setCoalesceWhitespace(boolean coalesceWhitespace) {
+    this.coalesceWhitespace = coalesceWhitespace;
+  }
+
+  public void setLineTracking(boolean lineTracking) {
+    this.lineTracking = lineTracking;
+  }
+
+  public LineMap getLineMap() {
+    return lineMap;
+  }
+
+  public void setMaxTokenLength(int maxTokenLength) {
+    if (maxTokenLength <= 0) {
+      throw new IllegalArgumentException("Token length limit must be positive: " + maxTokenLength);
+    }
+    this.maxTokenLength = maxTokenLength;
+    this.bufferLimit =
+        maxTokenLength > Integer.MAX_VALUE - TRUNCATION_SLACK
+            ? Integer.MAX_VALUE
+            : maxTokenLength + TRUNCATION_SLACK;
+  }
+
+  public int getMaxTokenLength() {
+    return maxTokenLength;
+  }
+
+  public void setPreprocessorSymbols(Set<String> symbols) {
+    preprocessor = symbols == null ? null : new Preprocessor(symbols);
+  }
+
+  void restoreDefaults() {
+    listener = null;
+    skippedTypes = 0;
+    coalesceWhitespace = false;
+    lineTracking = false;
+    maxTokenLength = Integer.MAX_VALUE;
+    bufferLimit = Integer.MAX_VALUE;
+    preprocessor = null;
+    reset();
+  }
+
+  void begin(Collection<Token> target, TokenSpanSink sink) {
+    reset();
+    tokens = target;
+    spanSink = sink;
+    if (listener != null) {
+      startNanos = System.nanoTime();
+    }
+  }
+
+  void beginSourceTokens(Collection<Token> target) {
+    begin(target, null);
+    sourceTokensOnly = true;
+  }
+
+  void beginAt(int offset, Collection<Token> target) {
+    begin(target, null);
+    position = offset;
+    tokenStart = offset;
+    startPosition = offset;
+  }
+
+  void redirect(Collection<Token> target) {
+    tokens = target;
+  }
+
+  boolean isAtTokenBoundary() {
+    return buffer.length() == 0;
+  }
+
+  State getState() {
+    return state;
+  }
+
+  private void scan(CharSequence source) {
+    if (source instanceof CharBuffer && ((CharBuffer) source).hasArray()) {
+      CharBuffer charBuffer = (CharBuffer) source;
+      char[] chars = charBuffer.array();
+      int from = charBuffer.arrayOffset() + charBuffer.position();
+      scan(chars, from, from + charBuffer.remaining());
+    } else {
+      int length = source.length();
+      char[] chunk = new char[Math.min(length, SCAN_CHUNK_SIZE)];
+      for (int offset = 0; offset < length; offset += chunk.length) {
+        int end = Math.min(length, offset + chunk.length);
+        copyChars(source, offset, end, chunk);
+        scan(chunk, 0, end - offset);
+      }
+    }
+  }
+
+  private void scan(char[] chars, int from, int to) {
+    scan(chars, from, to, null, 0);
+  }
+
+  void scan(char[] chars, int from, int to, SyncPoints syncPoints, int syncInterval) {
+    if (lineMap != null) {
+      lineMap.addLineStarts(chars, from, to, position - from);
+    }
+    int nextSync = syncPoints == null ? Integer.MAX_VALUE : position;
+    int i = from;
+    while (i < to) {
+      if (state == State.INITIAL && canSkipWhitespaceRun()) {
+        i = skipWhitespaceRun(chars, i, to);
+        if (i == to) {
+          break;
+        }
+      } else if (state == State.INACTIVE_REGION) {
+        i = skipInactiveRegion(chars, i, to);
+        if (i == to) {
+          break;
+        }
+      }
+      int runEnd = skipUnchangedRun(chars, i, to);
+      if (runEnd > i) {
+        appendRun(chars, i, runEnd);
+        position += runEnd - i;
+        i = runEnd;
+        if (i == to) {
+          break;
+        }
+      }
+      step(chars[i++], position + 1);
+      if (position >= nextSync && buffer.length() == 0) {
+        syncPoints.add(position, state.ordinal(), tokens.size());
+        nextSync = position + syncInterval;
+      }
+    }
+  }
+
+  private int skipUnchangedRun(char[] chars, int from, int to) {
+    int i = from;
+    switch (state) {
+      case IDENTIFIER -> {
+        while (i < to && CharacterTypeChecker.isIdentifierPart(chars[i])) {
+          i++;
+        }
+      }
+      case STRING_LITERAL -> i = SCANNER.indexOf(chars, from, to, '"');
+      case SINGLE_LINE_COMMENT, DIRECTIVE -> i = indexOfLineEnd(chars, from, to);
+      case MULTI_LINE_COMMENT -> i = SCANNER.indexOf(chars, from, to, '*');
+      default -> {}
+    }
+    return i;
+  }
+
+  private static int indexOfLineEnd(char[] chars, int from, int to) {
+    int i = SCANNER.indexOfLineBreakCandidate(chars, from, to);
+    while (i < to && !isSingleLineCommentEnd(chars[i])) {
+      i = SCANNER.indexOfLineBreakCandidate(chars, i + 1, to);
+    }
+    return i;
+  }
+
+  private int skipInactiveRegion(char[] chars, int from, int to) {
+    int i = from;
+    while (i < to) {
+      char character = chars[i];
+      if (isSingleLineCommentEnd(character)) {
+        atLineStart = true;
+        i++;
+      } else if (!atLineStart) {
+        i = indexOfLineEnd(chars, i, to);
+      } else if (character == '#') {
+        break;
+      } else {
+        atLineStart = Character.isWhitespace(character);
+        i++;
+      }
+    }
+    position += i - from;
+    tokenStart = position;
+    return i;
+  }
+
+  private void appendRun(char[] chars, int from, int to) {
+    int length = to - from;
+    if (length <= bufferLimit - buffer.length()) {
+      buffer.append(chars, from, length);
+      return;
+    }
+    int headLength = Math.min(length, Math.max(0, maxTokenLength - buffer.length()));
+    buffer.append(chars, from, headLength);
+    int tailFrom = Math.max(from + headLength, to - TRUNCATED_TAIL_LENGTH);
+    truncated |= tailFrom > from + headLength;
+    buffer.append(chars, tailFrom, to - tailFrom);
+    if (buffer.length() > bufferLimit) {
+      truncateBuffer();
+    }
+  }
+
+  private void truncateBuffer() {
+    buffer.delete(maxTokenLength, buffer.length() - TRUNCATED_TAIL_LENGTH);
+    truncated = true;
+  }
+
+  private boolean canSkipWhitespaceRun() {
+    if (buffer.length() > 0) {
+      return false;
+    }
+    if (isSkipped(TokenType.WHITESPACE)) {
+      return listener == null && whitespaceRun.length() == 0;
+    }
+    return coalesceWhitespace;
+  }
+
+  private int skipWhitespaceRun(char[] chars, int from, int to) {
+    boolean coalescing = coalesceWhitespace && !isSkipped(TokenType.WHITESPACE);
+    int end = coalescing ? from + Math.min(to - from, maxTokenLength - whitespaceRun.length()) : to;
+    int runEnd = SCANNER.indexOfNonWhitespace(chars, from, end);
+    int length = runEnd - from;
+    if (length == 0) {
+      return from;
+    }
+    if (preprocessor != null && !atLineStart) {
+      for (int j = from; j < runEnd && !atLineStart; j++) {
+        atLineStart = isSingleLineCommentEnd(chars[j]);
+      }
+    }
+    if (coalescing) {
+      if (whitespaceRun.length() == 0) {
+        whitespaceRunStart = tokenStart;
+      }
+      whitespaceRun.append(chars, from, length);
+      whitespaceRunEnd = position + length;
+      if (whitespaceRun.length() >= maxTokenLength) {
+        flushWhitespaceRun();
+      }
+    }
+    position += length;
+    tokenStart = position;
+    return runEnd;
+  }
+
+  private static void copyChars(CharSequence source, int from, int to, char[] target) {
+    if (source instanceof String) {
+      ((String) source).getChars(from, to, target, 0);
+    } else if (source instanceof StringBuilder) {
+      ((StringBuilder) source).getChars(from, to, target, 0);
+    } else {
+      for (int i = from; i < to; i++) {
+        target[i - from] = source.charAt(i);
+      }
+    }
+  }
+
+  void accept(char character) {
+    accept(character, 1);
+  }
+
+  void accept(char character, int width) {
+    int next = position + width;
+    if (lineMap != null && character == '\n') {
+      lineMap.addLineStart(next);
+    }
+    step(character, next);
+  }
+
+  int appendAsciiRun(byte[] bytes, int from, int to) {
+    int i = from;
+    switch (state) {
+      case IDENTIFIER -> {
+        while (i < to && bytes[i] >= 0 && CharacterTypeChecker.isIdentifierPart((char) bytes[i])) {
+          i++;
+        }
+      }
+      case STRING_LITERAL -> {
+        while (i < to && bytes[i] >= 0 && bytes[i] != '"') {
+          i++;
+        }
+      }
+      case SINGLE_LINE_COMMENT, DIRECTIVE -> {
+        while (i < to && bytes[i] >= 0 && !isSingleLineCommentEnd((char) bytes[i])) {
+          i++;
+        }
+      }
+      case MULTI_LINE_COMMENT -> {
+        while (i < to && bytes[i] >= 0 && bytes[i] != '*') {
+          i++;
+        }
+      }
+      default -> {}
+    }
+    for (int j = from; j < i; j++) {
+      buffer.append((char) bytes[j]);
+      if (buffer.length() > bufferLimit) {
+        truncateBuffer();
+      }
+      if (lineMap != null && bytes[j] == '\n') {
+        lineMap.addLineStart(position + j - from + 1);
+      }
+    }
+    position += i - from;
+    return i;
+  }
+
+  private void step(char character, int next) {
+    nextPosition = next;
+    if (listener == null) {
+      processCharacter(character);
+    } else {
+      State previous = state;
       processCharacter(character);
+      if (state != previous) {
+        listener.onStateTransition(previous, state);
+      }
     }
+    position = next;
+  }
+
+  void finish() {
+    finishing = true;
+    nextPosition = position + 1;
     processCharacter(' ');
-    return tokens;
+    if (state != State.INITIAL
+        && state != State.INACTIVE_REGION
+        && isOversized(buffer.length() - 1)) {
+      createPreviousDataToken(TokenType.ERROR);
+      buffer.setLength(0);
+    }
+    if (whitespaceRun.length() > 0) {
+      flushWhitespaceRun();
+    }
+    if (listener != null) {
+      listener.onFinish(position - startPosition, System.nanoTime() - startNanos);
+    }
+  }
+
+  boolean hasPendingTokens() {
+    return !pendingTokens.isEmpty();
   }
 
-  private void processCharacter(Character character) {
+  Token pollToken() {
+    return pendingTokens.pollFirst();
+  }
+
+  private void processCharacter(char character) {
     buffer.append(character);
+    if (buffer.length() > bufferLimit) {
+      truncateBuffer();
+    }
     switch (state) {
       case INITIAL -> initialState(character);
       case ERROR -> errorState(character);
@@ -60,25 +543,94 @@ public class Lexer {
       case STAR_IN_MULTI_LINE_COMMENT -> starInMultilineCommentState(character);
       case FLOAT_SUFFIX -> floatSuffixState(character);
       case DOUBLE_DOT -> doubleDotState(character);
+      case DIRECTIVE -> directiveState(character);
+      case INACTIVE_REGION -> inactiveRegionState(character);
       default -> System.out.println("No state determined for this case");
     }
   }
 
   private void createToken(TokenType tokenType) {
-    tokens.add(new Token(tokenType, buffer.toString()));
-    buffer = new StringBuilder();
+    if (tokenType == TokenType.WHITESPACE
+        && coalesceWhitespace
+        && !isOversized(buffer.length())
+        && !isSkipped(tokenType)) {
+      if (whitespaceRun.length() + buffer.length() > maxTokenLength) {
+        flushWhitespaceRun();
+      }
+      if (whitespaceRun.length() == 0) {
+        whitespaceRunStart = tokenStart;
+      }
+      whitespaceRun.append(buffer);
+      whitespaceRunEnd = nextPosition;
+    } else {
+      emitToken(tokenType, buffer.length(), nextPosition);
+    }
+    buffer.setLength(0);
+    tokenStart = nextPosition;
   }
 
   private void createPreviousDataToken(TokenType tokenType) {
-    String previousData = buffer.substring(0, buffer.length() - 1);
-    Character lastSymbol = buffer.charAt(buffer.length() - 1);
-    tokens.add(new Token(tokenType, previousData));
-    buffer = new StringBuilder();
+    int dataLength = buffer.length() - 1;
+    char lastSymbol = buffer.charAt(dataLength);
+    emitToken(tokenType, dataLength, position);
+    buffer.setLength(0);
     buffer.append(lastSymbol);
+    tokenStart = position;
   }
 
-  private void initialState(Character character) {
-    if (character == '/') {
+  private void emitToken(TokenType tokenType, int dataLength, int tokenEnd) {
+    if (whitespaceRun.length() > 0) {
+      flushWhitespaceRun();
+    }
+    if (isOversized(dataLength)) {
+      truncated = false;
+      emit(TokenType.ERROR, buffer, Math.min(dataLength, maxTokenLength), tokenStart, tokenEnd);
+    } else {
+      emit(tokenType, buffer, dataLength, tokenStart, tokenEnd);
+    }
+  }
+
+  private boolean isOversized(int dataLength) {
+    return truncated || dataLength > maxTokenLength;
+  }
+
+  private void flushWhitespaceRun() {
+    int length = whitespaceRun.length();
+    emit(TokenType.WHITESPACE, whitespaceRun, length, whitespaceRunStart, whitespaceRunEnd);
+    whitespaceRun.setLength(0);
+  }
+
+  private void emit(
+      TokenType tokenType, StringBuilder text, int dataLength, int start, int tokenEnd) {
+    if (listener != null) {
+      listener.onToken(tokenType, dataLength);
+    }
+    if (isSkipped(tokenType)) {
+      return;
+    }
+    int sourceEnd = finishing ? Math.min(tokenEnd, position) : tokenEnd;
+    if (spanSink == null) {
+      if (sourceTokensOnly && sourceEnd <= start) {
+        return;
+      }
+      String data =
+          symbolTable == null
+              ? text.substring(0, dataLength)
+              : symbolTable.intern(tokenType, text, 0, dataLength);
+      tokens.add(new Token(tokenType, data));
+    } else if (sourceEnd > start) {
+      spanSink.accept(tokenType, start, sourceEnd - start);
+    }
+  }
+
+  private boolean isSkipped(TokenType tokenType) {
+    return (skippedTypes & 1 << tokenType.ordinal()) != 0;
+  }
+
+  private void initialState(char character) {
+    if (preprocessor != null && isDirectiveStart(character)) {
+      state = State.DIRECTIVE;
+    } else if (character == '/') {
       state = State.SLASH;
     } else if (Character.isWhitespace(character)) {
       createToken(TokenType.WHITESPACE);
@@ -124,14 +676,14 @@ public class Lexer {
     }
   }
 
-  private void errorState(Character character) {
+  private void errorState(char character) {
     createPreviousDataToken(TokenType.ERROR);
     state = State.INITIAL;
     initialState(character);
   }
 
 
-  private void slashState(Character character) {
+  private void slashState(char character) {
     if (character == '/') {
       state = State.SINGLE_LINE_COMMENT;
     } else if (character == '*') {
@@ -147,7 +699,7 @@ public class Lexer {
     }
   }
 
-  private void identifierState(Character character) {
+  private void identifierState(char character) {
     if (!Character.isJavaIdentifierPart(character)) {
       if (character == '#') {
         state = State.ERROR;
@@ -155,17 +707,7 @@ public class Lexer {
           || CharacterTypeChecker.isOperator(character)
           || CharacterTypeChecker.isSeparator(character)
           || character == '/') {
-        buffer.deleteCharAt(buffer.length() - 1);
-        if (StringTypeChecker.isNull(buffer.toString())) {
-          createToken(TokenType.NULL);
-        } else if (StringTypeChecker.isBoolean(buffer.toString())) {
-          createToken(TokenType.BOOLEAN);
-        } else if (StringTypeChecker.isKeyword(buffer.toString())) {
-          createToken(TokenType.KEYWORD);
-        } else {
-          createToken(TokenType.IDENTIFIER);
-        }
-        buffer.append(character);
+        createPreviousDataToken(KeywordMatcher.identifierType(buffer, 0, buffer.length() - 1));
         state = State.INITIAL;
         initialState(character);
       } else {
@@ -174,7 +716,7 @@ public class Lexer {
     }
   }
 
-  private void zeroFirstState(Character character) {
+  private void zeroFirstState(char character) {
     if (character == 'b' || character == 'B') {
       state = State.BINARY_DIGITS;
     } else if (character == 'x' || character == 'X') {
@@ -192,7 +734,7 @@ public class Lexer {
     }
   }
 
-  private void nonZeroDigitState(Character character) {
+  private void nonZeroDigitState(char character) {
     if (!Character.isDigit(character)) {
       if (character == '.') {
         state = State.POINT_IN_DIGIT;
@@ -210,7 +752,7 @@ public class Lexer {
     }
   }
 
-  private void charLiteralState(Character character) {
+  private void charLiteralState(char character) {
     if (character == '\\') {
       state = State.POSSIBLE_ESCAPE_SEQUENCE_CHAR;
     } else if (Character.isWhitespace(character) && character != ' ' && character != '\t') {
@@ -222,7 +764,7 @@ public class Lexer {
     }
   }
 
-  private void stringLiteralState(Character character) {
+  private void stringLiteralState(char character) {
     if (character == '\"') {
       if (buffer.charAt(buffer.length() - 2) != '\\') {
         createToken(TokenType.STRING);
@@ -233,7 +775,7 @@ public class Lexer {
     }
   }
 
-  private void dotState(Character character) {
+  private void dotState(char character) {
     if (Character.isDigit(character)) {
       state = State.POINT_IN_DIGIT;
     } else if (character == '.') {
@@ -245,18 +787,24 @@ public class Lexer {
     }
   }
 
-  private void doubleDotState(Character character) {
+  private void doubleDotState(char character) {
     if (character != '.') {
-      buffer = new StringBuilder();
-      buffer.append(".");
+      buffer.setLength(0);
+      buffer.append('.');
+      truncated = false;
+      tokenStart = position - 2;
+      emitToken(TokenType.SEPARATOR, 1, tokenStart + 1);
+      tokenStart++;
+      emitToken(TokenType.SEPARATOR, 1, tokenStart + 1);
+      buffer.setLength(0);
+      tokenStart = nextPosition;
+    } else {
       createToken(TokenType.SEPARATOR);
-      buffer.append(".");
     }
-    createToken(TokenType.SEPARATOR);
     state = State.INITIAL;
   }
 
-  private void greaterState(Character character) {
+  private void greaterState(char character) {
     if (character == '=') {
       createToken(TokenType.OPERATOR);
       state = State.INITIAL;
@@ -271,7 +819,7 @@ public class Lexer {
     }
   }
 
-  private void doubleGreaterState(Character character) {
+  private void doubleGreaterState(char character) {
     if (character == '>') {
       createToken(TokenType.OPERATOR);
       state = State.INITIAL;
@@ -284,7 +832,7 @@ public class Lexer {
     }
   }
 
-  private void lessState(Character character) {
+  private void lessState(char character) {
     if (character == '=') {
       createToken(TokenType.OPERATOR);
       state = State.INITIAL;
@@ -303,7 +851,7 @@ public class Lexer {
     }
   }
 
-  private void ampersandState(Character character) {
+  private void ampersandState(char character) {
     if (character == '&') {
       createToken(TokenType.OPERATOR);
       state = State.INITIAL;
@@ -318,7 +866,7 @@ public class Lexer {
     }
   }
 
-  private void singleOperatorState(Character character) {
+  private void singleOperatorState(char character) {
     if (character == '=') {
       state = State.OPERATOR_AND_EQUAL;
     } else if (CharacterTypeChecker.isOperator(character)) {
@@ -330,7 +878,7 @@ public class Lexer {
     }
   }
 
-  private void colonState(Character character) {
+  private void colonState(char character) {
     if (character == ':') {
       createToken(TokenType.SEPARATOR);
       state = State.INITIAL;
@@ -343,7 +891,7 @@ public class Lexer {
     }
   }
 
-  private void plusState(Character character) {
+  private void plusState(char character) {
     if (character == '+') {
       state = State.SINGLE_OPERATOR;
     } else if (character == '=') {
@@ -357,7 +905,7 @@ public class Lexer {
     }
   }
 
-  private void minusState(Character character) {
+  private void minusState(char character) {
     if (character == '-') {
       state = State.SINGLE_OPERATOR;
     } else if (character == '=') {
@@ -371,21 +919,72 @@ public class Lexer {
     }
   }
 
-  private void singleLineCommentState(Character character) {
-    if (Character.isWhitespace(character) && character != '\t' && character != ' ') {
+  private static boolean isSingleLineCommentEnd(char character) {
+    return Character.isWhitespace(character) && character != '\t' && character != ' ';
+  }
+
+  private boolean isDirectiveStart(char character) {
+    boolean directiveStart = character == '#' && atLineStart;
+    if (!Character.isWhitespace(character)) {
+      atLineStart = false;
+    } else if (isSingleLineCommentEnd(character)) {
+      atLineStart = true;
+    }
+    return directiveStart;
+  }
+
+  private void directiveState(char character) {
+    if (!isSingleLineCommentEnd(character) && !finishing) {
+      return;
+    }
+    Preprocessor.Result result = preprocessor.apply(buffer, buffer.length() - 1);
+    if (result == Preprocessor.Result.INACTIVE) {
+      buffer.setLength(0);
+      buffer.append(character);
+      tokenStart = position;
+    } else {
+      createPreviousDataToken(
+          result == Preprocessor.Result.DIRECTIVE ? TokenType.PREPROCESSOR : TokenType.ERROR);
+    }
+    if (preprocessor.isActive()) {
+      state = State.INITIAL;
+      initialState(character);
+    } else {
+      state = State.INACTIVE_REGION;
+      inactiveRegionState(character);
+    }
+  }
+
+  private void inactiveRegionState(char character) {
+    buffer.setLength(0);
+    if (character == '#' && atLineStart) {
+      buffer.append(character);
+      state = State.DIRECTIVE;
+      return;
+    }
+    if (isSingleLineCommentEnd(character)) {
+      atLineStart = true;
+    } else if (!Character.isWhitespace(character)) {
+      atLineStart = false;
+    }
+    tokenStart = nextPosition;
+  }
+
+  private void singleLineCommentState(char character) {
+    if (isSingleLineCommentEnd(character)) {
       createPreviousDataToken(TokenType.COMMENT);
       state = State.INITIAL;
       initialState(character);
     }
   }
 
-  private void multilineCommentState(Character character) {
+  private void multilineCommentState(char character) {
     if (character == '*') {
       state = State.STAR_IN_MULTI_LINE_COMMENT;
     }
   }
 
-  private void starInMultilineCommentState(Character character) {
+  private void starInMultilineCommentState(char character) {
     if (character == '/') {
       createToken(TokenType.COMMENT);
     } else {
@@ -393,7 +992,7 @@ public class Lexer {
     }
   }
 
-  private void operatorAndEqualState(Character character) {
+  private void operatorAndEqualState(char character) {
     if (CharacterTypeChecker.isOperator(character)) {
       state = State.ERROR;
     } else {
@@ -403,7 +1002,7 @@ public class Lexer {
     }
   }
 
-  private void pipeState(Character character) {
+  private void pipeState(char character) {
     if (character == '|') {
       createToken(TokenType.OPERATOR);
       state = State.INITIAL;
@@ -416,7 +1015,7 @@ public class Lexer {
     }
   }
 
-  private void pointInDigitState(Character character) {
+  private void pointInDigitState(char character) {
     if (!Character.isDigit(character)) {
       if (CharacterTypeChecker.isFloatingPointNumber(character)) {
         state = State.FLOAT_SUFFIX;
@@ -430,23 +1029,23 @@ public class Lexer {
     }
   }
 
-  private void possibleEscapeSequenceState(Character character) {
-    if (StringTypeChecker.isSpecial("\\" + character)) {
+  private void possibleEscapeSequenceState(char character) {
+    if (CharacterTypeChecker.isEscapeSequence(character)) {
       state = State.STRING_LITERAL;
     } else {
       state = State.ERROR;
     }
   }
 
-  private void possibleEscapeSequenceCharState(Character character) {
-    if (StringTypeChecker.isSpecial("\\" + character)) {
+  private void possibleEscapeSequenceCharState(char character) {
+    if (CharacterTypeChecker.isEscapeSequence(character)) {
       state = State.EXPECT_END_OF_CHAR;
     } else {
       state = State.ERROR;
     }
   }
 
-  private void expectEndOfCharState(Character character) {
+  private void expectEndOfCharState(char character) {
     if (character == '\'') {
       createToken(TokenType.CHAR);
       state = State.INITIAL;
@@ -455,7 +1054,7 @@ public class Lexer {
     }
   }
 
-  private void binaryDigitState(Character character) {
+  private void binaryDigitState(char character) {
     if (!CharacterTypeChecker.isBinary(character)) {
       if (character != '_') {
         if (character == 'l' || character == 'L') {
@@ -473,7 +1072,7 @@ public class Lexer {
     }
   }
 
-  private void hexDigitState(Character character) {
+  private void hexDigitState(char character) {
     if (!CharacterTypeChecker.isHex(character)) {
       if (character != '_') {
         if (character == 'l' || character == 'L') {
@@ -491,7 +1090,7 @@ public class Lexer {
     }
   }
 
-  private void integerSuffixState(Character character) {
+  private void integerSuffixState(char character) {
     if (Character.isJavaIdentifierPart(character)) {
       state = State.ERROR;
     } else {
@@ -501,7 +1100,7 @@ public class Lexer {
     }
   }
 
-  private void floatSuffixState(Character character) {
+  private void floatSuffixState(char character) {
     if (Character.isJavaIdentifierPart(character)) {
       state = State.ERROR;
     } else {
@@ -0,0 +1,22 @@
+package com.rmv.opk;
+
+import java.util.function.Function;
+
+public enum LexerEngine {
+  STATE_MACHINE(Lexer::new),
+  TABLE_DRIVEN(TableDrivenLexer::new);
+
+  private final Function<SymbolTable, Tokenizer> factory;
+
+  LexerEngine(Function<SymbolTable, Tokenizer> factory) {
+    this.factory = factory;
+  }
+
+  public Tokenizer create() {
+    return create(null);
+  }
+
+  public Tokenizer create(SymbolTable symbolTable) {
+    return factory.apply(symbolTable);
+  }
+}
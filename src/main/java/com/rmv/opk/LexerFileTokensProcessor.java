@@ -1,33 +1,39 @@
 package com.rmv.opk;
 
-import com.rmv.opk.entity.Token;
+import com.rmv.opk.io.OutputFormat;
+import com.rmv.opk.io.SourceFiles;
+import com.rmv.opk.io.TokenWriter;
 
 import java.io.*;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
-import java.util.List;
+import java.nio.file.Path;
 
 public class LexerFileTokensProcessor {
 
     public static void processFile(String fileName) throws IOException {
-        File fileWithCode = new File(fileName);
-        InputStream inputStream = new FileInputStream(fileWithCode);
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream, Charset.defaultCharset());
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
+        processFile(fileName, Charset.defaultCharset());
+    }
 
-        Lexer lexer = new Lexer();
-        List<Token> tokens = lexer.getTokens(bufferedReader);
+    public static void processFile(String fileName, Charset charset) throws IOException {
+        processFile(fileName, charset, LexerEngine.STATE_MACHINE);
+    }
 
-        for (Token token : tokens) {
-            convertNewLineSymbolsForOutput(token);
-            System.out.println("(" + token.getType() + " " + token.getData() + ")");
-        }
+    public static void processFile(String fileName, Charset charset, LexerEngine engine) throws IOException {
+        processFile(fileName, charset, engine, OutputFormat.TEXT, System.out);
     }
 
-    private static void convertNewLineSymbolsForOutput(Token token){
-        switch (token.getData()) {
-            case "\r" -> token.setData("\\r");
-            case "\n" -> token.setData("\\n");
-            case "\r\n" -> token.setData("\\r\\n");
+    public static void processFile(String fileName, Charset charset, LexerEngine engine,
+                                   OutputFormat format, OutputStream output) throws IOException {
+        Tokenizer tokenizer = engine.create();
+        CharBuffer source = SourceFiles.readChars(Path.of(fileName), charset);
+
+        TokenWriter writer = format.open(output, Charset.defaultCharset());
+        try {
+            tokenizer.getTokenSpans(source, writer.asSpanSink(source));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        writer.flush();
     }
 }
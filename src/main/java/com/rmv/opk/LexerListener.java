@@ -0,0 +1,12 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.State;
+import com.rmv.opk.constants.TokenType;
+
+public interface LexerListener {
+  default void onStateTransition(State from, State to) {}
+
+  default void onToken(TokenType type, int length) {}
+
+  default void onFinish(long characters, long elapsedNanos) {}
+}
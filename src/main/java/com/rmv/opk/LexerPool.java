@@ -0,0 +1,45 @@
+package com.rmv.opk;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+public class LexerPool {
+  private final BlockingQueue<Lexer> idle;
+  private final SymbolTable symbolTable;
+
+  public LexerPool(int maxIdle) {
+    this(maxIdle, null);
+  }
+
+  public LexerPool(int maxIdle, SymbolTable symbolTable) {
+    if (maxIdle <= 0) {
+      throw new IllegalArgumentException("Pool size must be positive: " + maxIdle);
+    }
+    this.idle = new ArrayBlockingQueue<>(maxIdle);
+    this.symbolTable = symbolTable;
+  }
+
+  public Lexer acquire() {
+    Lexer lexer = idle.poll();
+    return lexer != null ? lexer : new Lexer(symbolTable);
+  }
+
+  public void release(Lexer lexer) {
+    lexer.restoreDefaults();
+    idle.offer(lexer);
+  }
+
+  public <T> T withLexer(Function<Lexer, T> action) {
+    Lexer lexer = acquire();
+    try {
+      return action.apply(lexer);
+    } finally {
+      release(lexer);
+    }
+  }
+
+  public int idleCount() {
+    return idle.size();
+  }
+}
@@ -0,0 +1,56 @@
+package com.rmv.opk;
+
+import java.util.Arrays;
+
+public class LineMap {
+  private int[] lineStarts = new int[64];
+  private int lineCount = 1;
+
+  public static LineMap of(CharSequence source) {
+    LineMap lineMap = new LineMap();
+    for (int i = 0; i < source.length(); i++) {
+      if (source.charAt(i) == '\n') {
+        lineMap.addLineStart(i + 1);
+      }
+    }
+    return lineMap;
+  }
+
+  void addLineStart(int offset) {
+    if (lineCount == lineStarts.length) {
+      lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+    }
+    lineStarts[lineCount++] = offset;
+  }
+
+  void addLineStarts(char[] chars, int from, int to, int offsetDelta) {
+    for (int i = from; i < to; i++) {
+      if (chars[i] == '\n') {
+        addLineStart(i + 1 + offsetDelta);
+      }
+    }
+  }
+
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  public int getLineStart(int line) {
+    if (line < 1 || line > lineCount) {
+      throw new IndexOutOfBoundsException("Line " + line + " out of 1.." + lineCount);
+    }
+    return lineStarts[line - 1];
+  }
+
+  public int getLine(int offset) {
+    if (offset < 0) {
+      throw new IndexOutOfBoundsException("Negative offset: " + offset);
+    }
+    int index = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+    return index >= 0 ? index + 1 : -index - 1;
+  }
+
+  public int getColumn(int offset) {
+    return offset - lineStarts[getLine(offset) - 1] + 1;
+  }
+}
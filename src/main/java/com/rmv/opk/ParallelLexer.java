@@ -0,0 +1,144 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.State;
+import com.rmv.opk.entity.Token;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class ParallelLexer {
+  private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+  private static final int MAX_BOUNDARY_SHIFT = 4096;
+  private static final int SYNC_INTERVAL = 64;
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+  private final SymbolTable symbolTable;
+
+  public ParallelLexer() {
+    this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+  public ParallelLexer(ForkJoinPool pool, int chunkSize) {
+    this(pool, chunkSize, null);
+  }
+
+  public ParallelLexer(ForkJoinPool pool, int chunkSize, SymbolTable symbolTable) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+    }
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.symbolTable = symbolTable;
+  }
+
+  public List<Token> getTokens(CharSequence source) {
+    CharBuffer chars =
+        source instanceof CharBuffer && ((CharBuffer) source).hasArray()
+            ? (CharBuffer) source
+            : CharBuffer.wrap(source.toString().toCharArray());
+    int from = chars.arrayOffset() + chars.position();
+    return getTokens(chars.array(), from, from + chars.remaining());
+  }
+
+  public List<Token> getTokens(char[] chars, int from, int to) {
+    int[] boundaries = split(chars, from, to);
+    int chunkCount = boundaries.length - 1;
+    if (chunkCount == 1) {
+      return new Lexer(symbolTable).getTokens(CharBuffer.wrap(chars, from, to - from));
+    }
+
+    List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(chunkCount);
+    for (int i = 0; i < chunkCount; i++) {
+      int chunkFrom = boundaries[i];
+      int chunkTo = boundaries[i + 1];
+      tasks.add(pool.submit(() -> Chunk.lex(chars, chunkFrom, chunkTo, symbolTable)));
+    }
+
+    Chunk first = tasks.get(0).join();
+    List<Token> result = first.tokens;
+    Lexer lexer = first.lexer;
+    for (int i = 1; i < chunkCount; i++) {
+      Chunk chunk = tasks.get(i).join();
+      lexer.redirect(result);
+      if (lexer.isAtTokenBoundary() && lexer.getState() == State.INITIAL) {
+        result.addAll(chunk.tokens);
+        lexer = chunk.lexer;
+      } else {
+        lexer = resynchronize(lexer, chunk, chars, result);
+      }
+    }
+    lexer.redirect(result);
+    lexer.finish();
+    return result;
+  }
+
+  private static Lexer resynchronize(Lexer lexer, Chunk chunk, char[] chars, List<Token> result) {
+    SyncPoints syncPoints = chunk.syncPoints;
+    int syncIndex = 0;
+    for (int i = chunk.from; i < chunk.to; i++) {
+      lexer.accept(chars[i]);
+      if (lexer.isAtTokenBoundary()) {
+        int offset = i + 1;
+        while (syncIndex < syncPoints.size() && syncPoints.offset(syncIndex) < offset) {
+          syncIndex++;
+        }
+        if (syncIndex < syncPoints.size()
+            && syncPoints.offset(syncIndex) == offset
+            && syncPoints.state(syncIndex) == lexer.getState().ordinal()) {
+          result.addAll(chunk.tokens.subList(syncPoints.tokenCount(syncIndex), chunk.tokens.size()));
+          return chunk.lexer;
+        }
+      }
+    }
+    return lexer;
+  }
+
+  private int[] split(char[] chars, int from, int to) {
+    int[] boundaries = new int[2 + (to - from) / chunkSize];
+    int count = 0;
+    boundaries[count++] = from;
+    int boundary = from + chunkSize;
+    while (boundary < to) {
+      int limit = Math.min(to, boundary + MAX_BOUNDARY_SHIFT);
+      int lineStart = boundary;
+      while (lineStart < limit && chars[lineStart - 1] != '\n') {
+        lineStart++;
+      }
+      boundary = lineStart < limit ? lineStart : boundary;
+      if (boundary >= to) {
+        break;
+      }
+      boundaries[count++] = boundary;
+      boundary += chunkSize;
+    }
+    boundaries[count++] = to;
+    return Arrays.copyOf(boundaries, count);
+  }
+
+  private static class Chunk {
+    private final int from;
+    private final int to;
+    private final Lexer lexer;
+    private final List<Token> tokens = new ArrayList<>();
+    private final SyncPoints syncPoints = new SyncPoints();
+
+    private Chunk(int from, int to, SymbolTable symbolTable) {
+      this.from = from;
+      this.to = to;
+      this.lexer = new Lexer(symbolTable);
+    }
+
+    private static Chunk lex(char[] chars, int from, int to, SymbolTable symbolTable) {
+      Chunk chunk = new Chunk(from, to, symbolTable);
+      Lexer lexer = chunk.lexer;
+      lexer.beginAt(from, chunk.tokens);
+      lexer.scan(chars, from, to, chunk.syncPoints, SYNC_INTERVAL);
+      return chunk;
+    }
+  }
+}
@@ -0,0 +1,268 @@
+package com.rmv.opk;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+class Preprocessor {
+  enum Result {
+    DIRECTIVE,
+    INVALID,
+    INACTIVE
+  }
+
+  private final Set<String> definedSymbols;
+  private final Set<String> symbols = new HashSet<>();
+  private final Deque<Conditional> conditionals = new ArrayDeque<>();
+  private CharSequence expression;
+  private int cursor;
+  private int expressionEnd;
+
+  Preprocessor(Set<String> definedSymbols) {
+    this.definedSymbols = Set.copyOf(definedSymbols);
+    reset();
+  }
+
+  void reset() {
+    symbols.clear();
+    symbols.addAll(definedSymbols);
+    conditionals.clear();
+  }
+
+  boolean isActive() {
+    Conditional conditional = conditionals.peek();
+    return conditional == null || conditional.active;
+  }
+
+  Result apply(CharSequence line, int length) {
+    int end = argumentsEnd(line, length);
+    int nameStart = skipSpaces(line, 1, end);
+    int nameEnd = nameStart;
+    while (nameEnd < end && Character.isLetter(line.charAt(nameEnd))) {
+      nameEnd++;
+    }
+    String name = line.subSequence(nameStart, nameEnd).toString();
+    int argumentsStart = skipSpaces(line, nameEnd, end);
+    boolean active = isActive();
+    switch (name) {
+      case "if":
+        return openConditional(active, line, argumentsStart, end);
+      case "elif":
+        return nextBranch(line, argumentsStart, end, false);
+      case "else":
+        return nextBranch(line, argumentsStart, end, true);
+      case "endif":
+        return closeConditional(argumentsStart, end);
+      case "define":
+      case "undef":
+        if (!active) {
+          return Result.INACTIVE;
+        }
+        return updateSymbol(name.equals("define"), line, argumentsStart, end);
+      case "region":
+      case "endregion":
+      case "pragma":
+      case "nullable":
+      case "line":
+      case "error":
+      case "warning":
+        return active ? Result.DIRECTIVE : Result.INACTIVE;
+      default:
+        return active ? Result.INVALID : Result.INACTIVE;
+    }
+  }
+
+  private Result openConditional(boolean active, CharSequence line, int from, int to) {
+    if (!active) {
+      conditionals.push(new Conditional(false, true, false));
+      return Result.INACTIVE;
+    }
+    Boolean condition = evaluate(line, from, to);
+    boolean taken = condition != null && condition;
+    conditionals.push(new Conditional(true, taken, taken));
+    return condition == null ? Result.INVALID : Result.DIRECTIVE;
+  }
+
+  private Result nextBranch(CharSequence line, int from, int to, boolean isElse) {
+    Conditional conditional = conditionals.peek();
+    if (conditional == null) {
+      return Result.INVALID;
+    }
+    if (!conditional.parentActive) {
+      return Result.INACTIVE;
+    }
+    if (conditional.closed) {
+      return Result.INVALID;
+    }
+    if (isElse) {
+      conditional.active = !conditional.taken;
+      conditional.taken = true;
+      conditional.closed = true;
+      return from == to ? Result.DIRECTIVE : Result.INVALID;
+    }
+    if (conditional.taken) {
+      conditional.active = false;
+      return Result.DIRECTIVE;
+    }
+    Boolean condition = evaluate(line, from, to);
+    conditional.active = condition != null && condition;
+    conditional.taken = conditional.active;
+    return condition == null ? Result.INVALID : Result.DIRECTIVE;
+  }
+
+  private Result closeConditional(int from, int to) {
+    Conditional conditional = conditionals.poll();
+    if (conditional == null) {
+      return Result.INVALID;
+    }
+    if (!conditional.parentActive) {
+      return Result.INACTIVE;
+    }
+    return from == to ? Result.DIRECTIVE : Result.INVALID;
+  }
+
+  private Result updateSymbol(boolean define, CharSequence line, int from, int to) {
+    int symbolEnd = identifierEnd(line, from, to);
+    if (symbolEnd == from || skipSpaces(line, symbolEnd, to) != to) {
+      return Result.INVALID;
+    }
+    String symbol = line.subSequence(from, symbolEnd).toString();
+    if (symbol.equals("true") || symbol.equals("false")) {
+      return Result.INVALID;
+    }
+    if (define) {
+      symbols.add(symbol);
+    } else {
+      symbols.remove(symbol);
+    }
+    return Result.DIRECTIVE;
+  }
+
+  private Boolean evaluate(CharSequence line, int from, int to) {
+    expression = line;
+    cursor = from;
+    expressionEnd = to;
+    Boolean value = parseOr();
+    boolean complete = value != null && skipSpaces(expression, cursor, expressionEnd) == to;
+    expression = null;
+    return complete ? value : null;
+  }
+
+  private Boolean parseOr() {
+    Boolean value = parseAnd();
+    while (value != null && consume("||")) {
+      Boolean right = parseAnd();
+      value = right == null ? null : value || right;
+    }
+    return value;
+  }
+
+  private Boolean parseAnd() {
+    Boolean value = parseEquality();
+    while (value != null && consume("&&")) {
+      Boolean right = parseEquality();
+      value = right == null ? null : value && right;
+    }
+    return value;
+  }
+
+  private Boolean parseEquality() {
+    Boolean value = parseUnary();
+    while (value != null) {
+      boolean equals = consume("==");
+      if (!equals && !consume("!=")) {
+        break;
+      }
+      Boolean right = parseUnary();
+      value = right == null ? null : value.equals(right) == equals;
+    }
+    return value;
+  }
+
+  private Boolean parseUnary() {
+    if (consume("!")) {
+      Boolean value = parseUnary();
+      return value == null ? null : !value;
+    }
+    if (consume("(")) {
+      Boolean value = parseOr();
+      return value != null && consume(")") ? value : null;
+    }
+    cursor = skipSpaces(expression, cursor, expressionEnd);
+    int end = identifierEnd(expression, cursor, expressionEnd);
+    if (end == cursor) {
+      return null;
+    }
+    String symbol = expression.subSequence(cursor, end).toString();
+    cursor = end;
+    switch (symbol) {
+      case "true":
+        return true;
+      case "false":
+        return false;
+      default:
+        return symbols.contains(symbol);
+    }
+  }
+
+  private boolean consume(String operator) {
+    int start = skipSpaces(expression, cursor, expressionEnd);
+    if (start + operator.length() > expressionEnd) {
+      return false;
+    }
+    for (int i = 0; i < operator.length(); i++) {
+      if (expression.charAt(start + i) != operator.charAt(i)) {
+        return false;
+      }
+    }
+    cursor = start + operator.length();
+    return true;
+  }
+
+  private static int argumentsEnd(CharSequence line, int length) {
+    int end = length;
+    for (int i = 1; i + 1 < length; i++) {
+      if (line.charAt(i) == '/' && line.charAt(i + 1) == '/') {
+        end = i;
+        break;
+      }
+    }
+    while (end > 1 && Character.isWhitespace(line.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  private static int identifierEnd(CharSequence line, int from, int to) {
+    if (from == to || !Character.isJavaIdentifierStart(line.charAt(from))) {
+      return from;
+    }
+    int i = from + 1;
+    while (i < to && Character.isJavaIdentifierPart(line.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipSpaces(CharSequence line, int from, int to) {
+    int i = from;
+    while (i < to && Character.isWhitespace(line.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static class Conditional {
+    private final boolean parentActive;
+    private boolean taken;
+    private boolean active;
+    private boolean closed;
+
+    private Conditional(boolean parentActive, boolean taken, boolean active) {
+      this.parentActive = parentActive;
+      this.taken = taken;
+      this.active = active;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.rmv.opk;
+
+public class ScalarCharScanner implements CharScanner {
+  public static final ScalarCharScanner INSTANCE = new ScalarCharScanner();
+
+  @Override
+  public int indexOf(char[] chars, int from, int to, char target) {
+    int i = from;
+    while (i < to && chars[i] != target) {
+      i++;
+    }
+    return i;
+  }
+
+  @Override
+  public int indexOfLineBreakCandidate(char[] chars, int from, int to) {
+    int i = from;
+    while (i < to && !isLineBreakCandidate(chars[i])) {
+      i++;
+    }
+    return i;
+  }
+
+  @Override
+  public int indexOfNonWhitespace(char[] chars, int from, int to) {
+    int i = from;
+    while (i < to && isAsciiWhitespace(chars[i])) {
+      i++;
+    }
+    return i;
+  }
+
+  public static boolean isLineBreakCandidate(char character) {
+    return character < ' ' && character != '\t' || character >= 0x80;
+  }
+
+  public static boolean isAsciiWhitespace(char character) {
+    return character == ' '
+        || character >= '\t' && character <= '\r'
+        || character >= '\u001c' && character <= '\u001f';
+  }
+}
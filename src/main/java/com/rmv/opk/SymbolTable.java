@@ -0,0 +1,207 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.TokenType;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+public class SymbolTable {
+  public static final int NO_SYMBOL = -1;
+
+  private static final int DEFAULT_MAX_SYMBOLS = 1 << 16;
+  private static final int DEFAULT_MAX_LITERAL_LENGTH = 32;
+  private static final int STRIPE_BITS = 4;
+  private static final int STRIPE_COUNT = 1 << STRIPE_BITS;
+
+  private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+  private final int maxLiteralLength;
+
+  public SymbolTable() {
+    this(DEFAULT_MAX_SYMBOLS, DEFAULT_MAX_LITERAL_LENGTH);
+  }
+
+  public SymbolTable(int maxSymbols, int maxLiteralLength) {
+    if (maxSymbols < STRIPE_COUNT) {
+      throw new IllegalArgumentException("Symbol limit must be at least " + STRIPE_COUNT);
+    }
+    this.maxLiteralLength = maxLiteralLength;
+    for (int i = 0; i < STRIPE_COUNT; i++) {
+      stripes[i] = new Stripe(maxSymbols / STRIPE_COUNT);
+    }
+  }
+
+  public String intern(TokenType type, CharSequence text, int start, int end) {
+    if (!isInterned(type, end - start)) {
+      return text.subSequence(start, end).toString();
+    }
+    int hash = hash(text, start, end);
+    String symbol = stripeOf(hash).intern(hash, text, start, end);
+    return symbol != null ? symbol : text.subSequence(start, end).toString();
+  }
+
+  public String intern(TokenType type, char[] text, int start, int length) {
+    if (!isInterned(type, length)) {
+      return new String(text, start, length);
+    }
+    CharBuffer chars = CharBuffer.wrap(text, start, length);
+    int hash = hash(chars, 0, length);
+    String symbol = stripeOf(hash).intern(hash, chars, 0, length);
+    return symbol != null ? symbol : new String(text, start, length);
+  }
+
+  public String intern(TokenType type, String text) {
+    if (!isInterned(type, text.length())) {
+      return text;
+    }
+    int hash = text.hashCode();
+    String symbol = stripeOf(hash).intern(hash, text, 0, text.length());
+    return symbol != null ? symbol : text;
+  }
+
+  public int symbolId(TokenType type, CharSequence text) {
+    if (!isInterned(type, text.length())) {
+      return NO_SYMBOL;
+    }
+    int hash = hash(text, 0, text.length());
+    int stripe = stripeIndex(hash);
+    int local = stripes[stripe].add(hash, text, 0, text.length());
+    return local < 0 ? NO_SYMBOL : local << STRIPE_BITS | stripe;
+  }
+
+  public String symbol(int id) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Invalid symbol id: " + id);
+    }
+    return stripes[id & (STRIPE_COUNT - 1)].symbol(id >>> STRIPE_BITS);
+  }
+
+  public boolean isInterned(TokenType type, int length) {
+    switch (type) {
+      case IDENTIFIER:
+      case KEYWORD:
+      case BOOLEAN:
+      case NULL:
+        return true;
+      case COMMENT:
+      case ERROR:
+        return false;
+      default:
+        return length <= maxLiteralLength;
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  private Stripe stripeOf(int hash) {
+    return stripes[stripeIndex(hash)];
+  }
+
+  private static int stripeIndex(int hash) {
+    return spread(hash) & (STRIPE_COUNT - 1);
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int hash(CharSequence text, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    return hash;
+  }
+
+  private static boolean matches(String symbol, CharSequence text, int start, int end) {
+    if (symbol.length() != end - start) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (symbol.charAt(i - start) != text.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static class Stripe {
+    private final int capacity;
+    private String[] symbols = new String[16];
+    private int[] hashes = new int[16];
+    private int[] slots = new int[32];
+    private int size;
+
+    private Stripe(int capacity) {
+      this.capacity = capacity;
+    }
+
+    private synchronized String intern(int hash, CharSequence text, int start, int end) {
+      int index = add(hash, text, start, end);
+      return index < 0 ? null : symbols[index];
+    }
+
+    private synchronized int add(int hash, CharSequence text, int start, int end) {
+      int slot = find(hash, text, start, end);
+      if (slots[slot] != 0) {
+        return slots[slot] - 1;
+      }
+      if (size == capacity) {
+        return -1;
+      }
+      if (size == symbols.length) {
+        symbols = Arrays.copyOf(symbols, size * 2);
+        hashes = Arrays.copyOf(hashes, size * 2);
+      }
+      String symbol = text.subSequence(start, end).toString();
+      symbols[size] = symbol;
+      hashes[size] = hash;
+      slots[slot] = ++size;
+      if (size * 2 > slots.length) {
+        rehash();
+      }
+      return size - 1;
+    }
+
+    private synchronized String symbol(int index) {
+      if (index >= size) {
+        throw new IllegalArgumentException("Unknown symbol index: " + index);
+      }
+      return symbols[index];
+    }
+
+    private synchronized int size() {
+      return size;
+    }
+
+    private int find(int hash, CharSequence text, int start, int end) {
+      int mask = slots.length - 1;
+      int slot = (spread(hash) >>> STRIPE_BITS) & mask;
+      while (slots[slot] != 0) {
+        int index = slots[slot] - 1;
+        if (hashes[index] == hash && matches(symbols[index], text, start, end)) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    private void rehash() {
+      slots = new int[slots.length * 2];
+      int mask = slots.length - 1;
+      for (int index = 0; index < size; index++) {
+        int slot = (spread(hashes[index]) >>> STRIPE_BITS) & mask;
+        while (slots[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+      }
+    }
+  }
+}
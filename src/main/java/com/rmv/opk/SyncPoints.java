@@ -0,0 +1,87 @@
+package com.rmv.opk;
+
+import java.util.Arrays;
+
+class SyncPoints {
+  private int[] offsets;
+  private int[] states;
+  private int[] tokenCounts;
+  private int size;
+
+  SyncPoints() {
+    this(64);
+  }
+
+  SyncPoints(int capacity) {
+    offsets = new int[capacity];
+    states = new int[capacity];
+    tokenCounts = new int[capacity];
+  }
+
+  void add(int offset, int state, int tokenCount) {
+    if (size == offsets.length) {
+      grow(size + 1);
+    }
+    offsets[size] = offset;
+    states[size] = state;
+    tokenCounts[size] = tokenCount;
+    size++;
+  }
+
+  void replace(int from, int to, SyncPoints replacement, int offsetDelta, int tokenCountDelta) {
+    int tail = size - to;
+    int newSize = from + replacement.size + tail;
+    grow(newSize);
+    int newTailStart = from + replacement.size;
+    System.arraycopy(offsets, to, offsets, newTailStart, tail);
+    System.arraycopy(states, to, states, newTailStart, tail);
+    System.arraycopy(tokenCounts, to, tokenCounts, newTailStart, tail);
+    System.arraycopy(replacement.offsets, 0, offsets, from, replacement.size);
+    System.arraycopy(replacement.states, 0, states, from, replacement.size);
+    System.arraycopy(replacement.tokenCounts, 0, tokenCounts, from, replacement.size);
+    for (int i = newTailStart; i < newSize; i++) {
+      offsets[i] += offsetDelta;
+      tokenCounts[i] += tokenCountDelta;
+    }
+    size = newSize;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int offset(int index) {
+    return offsets[index];
+  }
+
+  int state(int index) {
+    return states[index];
+  }
+
+  int tokenCount(int index) {
+    return tokenCounts[index];
+  }
+
+  int firstAtOrAfter(int offset) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (offsets[middle] < offset) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private void grow(int minimumCapacity) {
+    if (minimumCapacity > offsets.length) {
+      int capacity = Math.max(minimumCapacity, offsets.length * 2);
+      offsets = Arrays.copyOf(offsets, capacity);
+      states = Arrays.copyOf(states, capacity);
+      tokenCounts = Arrays.copyOf(tokenCounts, capacity);
+    }
+  }
+}
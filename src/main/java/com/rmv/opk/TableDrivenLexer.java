@@ -0,0 +1,424 @@
+package com.rmv.opk;
+
+import com.rmv.opk.checkers.CharacterTypeChecker;
+import com.rmv.opk.checkers.KeywordMatcher;
+import com.rmv.opk.constants.State;
+import com.rmv.opk.constants.TokenType;
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.entity.TokenSpan;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TableDrivenLexer implements Tokenizer {
+  private static final int SHIFT = 0;
+  private static final int EMIT = 1;
+  private static final int EMIT_PREVIOUS = 2;
+  private static final int IDENTIFIER_END = 3;
+  private static final int STRING_QUOTE = 4;
+  private static final int DOUBLE_DOT_SPLIT = 5;
+
+  private static final int STATE_MASK = 0xFF;
+  private static final int ACTION_SHIFT = 8;
+  private static final int ACTION_MASK = 0xF;
+  private static final int TYPE_SHIFT = 12;
+
+  private static final State[] STATES = State.values();
+  private static final TokenType[] TOKEN_TYPES = TokenType.values();
+  private static final int INITIAL = State.INITIAL.ordinal();
+
+  private static final byte[] ASCII_CLASSES = new byte[128];
+  private static final byte[] NON_ASCII_CLASSES = new byte[16];
+  private static final int CLASS_COUNT;
+  private static final int[] TRANSITIONS;
+
+  private final SymbolTable symbolTable;
+
+  static {
+    Map<List<Integer>, Integer> classes = new HashMap<>();
+    List<int[]> columns = new ArrayList<>();
+    for (char character = 0; character < 128; character++) {
+      ASCII_CLASSES[character] = (byte) classOf(character, classes, columns);
+    }
+    Arrays.fill(NON_ASCII_CLASSES, (byte) -1);
+    for (int character = 128; character <= Character.MAX_VALUE; character++) {
+      int key = nonAsciiKey((char) character);
+      if (NON_ASCII_CLASSES[key] == -1) {
+        NON_ASCII_CLASSES[key] = (byte) classOf((char) character, classes, columns);
+      }
+    }
+    CLASS_COUNT = columns.size();
+    TRANSITIONS = new int[STATES.length * CLASS_COUNT];
+    for (int charClass = 0; charClass < CLASS_COUNT; charClass++) {
+      int[] column = columns.get(charClass);
+      for (int state = 0; state < STATES.length; state++) {
+        TRANSITIONS[state * CLASS_COUNT + charClass] = column[state];
+      }
+    }
+  }
+
+  public TableDrivenLexer() {
+    this(null);
+  }
+
+  public TableDrivenLexer(SymbolTable symbolTable) {
+    this.symbolTable = symbolTable;
+  }
+
+  @Override
+  public List<Token> getTokens(Reader reader) throws IOException {
+    char[] chars = new char[8192];
+    int length = 0;
+    int read;
+    while ((read = reader.read(chars, length, chars.length - length)) != -1) {
+      length += read;
+      if (length == chars.length) {
+        chars = Arrays.copyOf(chars, chars.length * 2);
+      }
+    }
+    return getTokens(CharBuffer.wrap(chars, 0, length));
+  }
+
+  @Override
+  public List<Token> getTokens(CharSequence source) {
+    return getTokens(source, false);
+  }
+
+  @Override
+  public List<Token> getSourceTokens(CharSequence source) {
+    return getTokens(source, true);
+  }
+
+  private List<Token> getTokens(CharSequence source, boolean sourceTokensOnly) {
+    CharBuffer chars = toCharBuffer(source);
+    char[] array = chars.array();
+    int from = chars.arrayOffset() + chars.position();
+    int to = from + chars.remaining();
+    CharBuffer wrapped = CharBuffer.wrap(array);
+    List<Token> tokens = new ArrayList<>();
+    run(
+        array,
+        from,
+        to,
+        (type, start, length) -> {
+          int sourceLength = Math.min(start + length, to) - start;
+          if (sourceTokensOnly && sourceLength <= 0) {
+            return;
+          }
+          String data;
+          if (type != TokenType.STRING && sourceLength == length) {
+            data =
+                symbolTable == null
+                    ? new String(array, start, length)
+                    : symbolTable.intern(type, array, start, length);
+          } else {
+            data = TokenSpan.materialize(type, wrapped, start, sourceLength);
+            if (sourceLength < length) {
+              data += ' ';
+            }
+            if (symbolTable != null) {
+              data = symbolTable.intern(type, data);
+            }
+          }
+          tokens.add(new Token(type, data));
+        });
+    return tokens;
+  }
+
+  public List<Token> getTokens(char[] source) {
+    return getTokens(CharBuffer.wrap(source));
+  }
+
+  @Override
+  public void getTokenSpans(CharSequence source, TokenSpanSink sink) {
+    CharBuffer chars = toCharBuffer(source);
+    int from = chars.arrayOffset() + chars.position();
+    int to = from + chars.remaining();
+    run(
+        chars.array(),
+        from,
+        to,
+        (type, start, length) -> {
+          int sourceLength = Math.min(start + length, to) - start;
+          if (sourceLength > 0) {
+            sink.accept(type, start - from, sourceLength);
+          }
+        });
+  }
+
+  private void run(char[] chars, int from, int to, TokenSpanSink sink) {
+    int currentState = INITIAL;
+    int tokenStart = from;
+    char previous = 0;
+    for (int i = from; i <= to; i++) {
+      char character = i < to ? chars[i] : ' ';
+      int transition = TRANSITIONS[currentState * CLASS_COUNT + classOf(character)];
+      switch ((transition >>> ACTION_SHIFT) & ACTION_MASK) {
+        case SHIFT -> currentState = transition & STATE_MASK;
+        case EMIT -> {
+          sink.accept(TOKEN_TYPES[transition >>> TYPE_SHIFT], tokenStart, i + 1 - tokenStart);
+          tokenStart = i + 1;
+          currentState = transition & STATE_MASK;
+        }
+        case EMIT_PREVIOUS, IDENTIFIER_END -> {
+          TokenType type =
+              ((transition >>> ACTION_SHIFT) & ACTION_MASK) == IDENTIFIER_END
+                  ? KeywordMatcher.identifierType(chars, tokenStart, i)
+                  : TOKEN_TYPES[transition >>> TYPE_SHIFT];
+          sink.accept(type, tokenStart, i - tokenStart);
+          tokenStart = i;
+          int initial = TRANSITIONS[INITIAL * CLASS_COUNT + classOf(character)];
+          if (((initial >>> ACTION_SHIFT) & ACTION_MASK) == EMIT) {
+            sink.accept(TOKEN_TYPES[initial >>> TYPE_SHIFT], tokenStart, 1);
+            tokenStart = i + 1;
+          }
+          currentState = initial & STATE_MASK;
+        }
+        case STRING_QUOTE -> {
+          if (previous != '\\') {
+            sink.accept(TokenType.STRING, tokenStart, i + 1 - tokenStart);
+            tokenStart = i + 1;
+            currentState = INITIAL;
+          }
+        }
+        case DOUBLE_DOT_SPLIT -> {
+          sink.accept(TokenType.SEPARATOR, i - 2, 1);
+          sink.accept(TokenType.SEPARATOR, i - 1, 1);
+          tokenStart = i + 1;
+          currentState = INITIAL;
+        }
+        default -> throw new IllegalStateException("Unknown transition " + transition);
+      }
+      previous = character;
+    }
+  }
+
+  private static int classOf(char character) {
+    return character < 128 ? ASCII_CLASSES[character] : NON_ASCII_CLASSES[nonAsciiKey(character)];
+  }
+
+  private static CharBuffer toCharBuffer(CharSequence source) {
+    if (source instanceof CharBuffer && ((CharBuffer) source).hasArray()) {
+      return (CharBuffer) source;
+    }
+    return CharBuffer.wrap(source.toString().toCharArray());
+  }
+
+  private static int nonAsciiKey(char character) {
+    return (Character.isWhitespace(character) ? 1 : 0)
+        | (Character.isJavaIdentifierStart(character) ? 2 : 0)
+        | (Character.isJavaIdentifierPart(character) ? 4 : 0)
+        | (Character.isDigit(character) ? 8 : 0);
+  }
+
+  private static int classOf(
+      char character, Map<List<Integer>, Integer> classes, List<int[]> columns) {
+    int[] column = new int[STATES.length];
+    List<Integer> key = new ArrayList<>(STATES.length);
+    for (State state : STATES) {
+      column[state.ordinal()] = transition(state, character);
+      key.add(column[state.ordinal()]);
+    }
+    return classes.computeIfAbsent(
+        key,
+        k -> {
+          columns.add(column);
+          return columns.size() - 1;
+        });
+  }
+
+  private static int shift(State next) {
+    return next.ordinal();
+  }
+
+  private static int emit(TokenType type, State next) {
+    return next.ordinal() | EMIT << ACTION_SHIFT | type.ordinal() << TYPE_SHIFT;
+  }
+
+  private static int emitPrevious(TokenType type) {
+    return INITIAL | EMIT_PREVIOUS << ACTION_SHIFT | type.ordinal() << TYPE_SHIFT;
+  }
+
+  private static int special(int action, State next) {
+    return next.ordinal() | action << ACTION_SHIFT;
+  }
+
+  private static int transition(State state, char character) {
+    boolean operator = CharacterTypeChecker.isOperator(character);
+    boolean identifierPart = Character.isJavaIdentifierPart(character);
+    return switch (state) {
+      case INITIAL -> initialTransition(character);
+      case ERROR -> emitPrevious(TokenType.ERROR);
+      case SLASH -> character == '/'
+          ? shift(State.SINGLE_LINE_COMMENT)
+          : character == '*'
+              ? shift(State.MULTI_LINE_COMMENT)
+              : character == '='
+                  ? shift(State.OPERATOR_AND_EQUAL)
+                  : operator ? shift(State.ERROR) : emitPrevious(TokenType.OPERATOR);
+      case IDENTIFIER -> identifierPart
+          ? shift(State.IDENTIFIER)
+          : character == '#'
+              ? shift(State.ERROR)
+              : Character.isWhitespace(character)
+                      || operator
+                      || CharacterTypeChecker.isSeparator(character)
+                      || character == '/'
+                  ? special(IDENTIFIER_END, State.INITIAL)
+                  : shift(State.ERROR);
+      case ZERO_FIRST -> character == 'b' || character == 'B'
+          ? shift(State.BINARY_DIGITS)
+          : character == 'x' || character == 'X'
+              ? shift(State.HEX_DIGITS)
+              : character == '.'
+                  ? shift(State.POINT_IN_DIGIT)
+                  : character == 'l' || character == 'L'
+                      ? shift(State.INTEGER_SUFFIX)
+                      : identifierPart || character == '8' || character == '9'
+                          ? shift(State.ERROR)
+                          : emitPrevious(TokenType.INT);
+      case NON_ZERO_DIGIT -> Character.isDigit(character)
+          ? shift(State.NON_ZERO_DIGIT)
+          : character == '.'
+              ? shift(State.POINT_IN_DIGIT)
+              : character == 'l' || character == 'L'
+                  ? shift(State.INTEGER_SUFFIX)
+                  : character == 'f' || character == 'F'
+                      ? shift(State.FLOAT_SUFFIX)
+                      : identifierPart ? shift(State.ERROR) : emitPrevious(TokenType.INT);
+      case CHAR_LITERAL -> character == '\\'
+          ? shift(State.POSSIBLE_ESCAPE_SEQUENCE_CHAR)
+          : Character.isWhitespace(character) && character != ' ' && character != '\t'
+              ? emitPrevious(TokenType.ERROR)
+              : shift(State.EXPECT_END_OF_CHAR);
+      case STRING_LITERAL -> character == '\"'
+          ? special(STRING_QUOTE, State.STRING_LITERAL)
+          : shift(State.STRING_LITERAL);
+      case DOT -> Character.isDigit(character)
+          ? shift(State.POINT_IN_DIGIT)
+          : character == '.' ? shift(State.DOUBLE_DOT) : emitPrevious(TokenType.SEPARATOR);
+      case DOUBLE_DOT -> character == '.'
+          ? emit(TokenType.SEPARATOR, State.INITIAL)
+          : special(DOUBLE_DOT_SPLIT, State.INITIAL);
+      case GREATER -> character == '='
+          ? emit(TokenType.OPERATOR, State.INITIAL)
+          : character == '>'
+              ? shift(State.DOUBLE_GREATER)
+              : operator ? shift(State.ERROR) : emitPrevious(TokenType.OPERATOR);
+      case DOUBLE_GREATER -> character == '>'
+          ? emit(TokenType.OPERATOR, State.INITIAL)
+          : operator ? shift(State.ERROR) : emitPrevious(TokenType.OPERATOR);
+      case LESS -> character == '=' || character == '>' || character == '<'
+          ? emit(TokenType.OPERATOR, State.INITIAL)
+          : operator ? shift(State.ERROR) : emitPrevious(TokenType.OPERATOR);
+      case AMPERSAND -> character == '&'
+          ? emit(TokenType.OPERATOR, State.INITIAL)
+          : character == '='
+              ? shift(State.OPERATOR_AND_EQUAL)
+              : operator ? shift(State.ERROR) : emitPrevious(TokenType.OPERATOR);
+      case SINGLE_OPERATOR, OPERATOR_AND_EQUAL -> character == '=' && state == State.SINGLE_OPERATOR
+          ? shift(State.OPERATOR_AND_EQUAL)
+          : operator ? shift(State.ERROR) : emitPrevious(TokenType.OPERATOR);
+      case COLON -> character == ':'
+          ? emit(TokenType.SEPARATOR, State.INITIAL)
+          : operator ? shift(State.ERROR) : emitPrevious(TokenType.OPERATOR);
+      case PLUS, MINUS -> character == (state == State.PLUS ? '+' : '-')
+          ? shift(State.SINGLE_OPERATOR)
+          : character == '='
+              ? shift(State.OPERATOR_AND_EQUAL)
+              : operator ? shift(State.INITIAL) : emitPrevious(TokenType.OPERATOR);
+      case PIPE -> character == '|'
+          ? emit(TokenType.OPERATOR, State.INITIAL)
+          : character == '='
+              ? shift(State.OPERATOR_AND_EQUAL)
+              : emitPrevious(TokenType.OPERATOR);
+      case SINGLE_LINE_COMMENT -> Character.isWhitespace(character)
+              && character != '\t'
+              && character != ' '
+          ? emitPrevious(TokenType.COMMENT)
+          : shift(State.SINGLE_LINE_COMMENT);
+      case MULTI_LINE_COMMENT -> character == '*'
+          ? shift(State.STAR_IN_MULTI_LINE_COMMENT)
+          : shift(State.MULTI_LINE_COMMENT);
+      case STAR_IN_MULTI_LINE_COMMENT -> character == '/'
+          ? emit(TokenType.COMMENT, State.STAR_IN_MULTI_LINE_COMMENT)
+          : shift(State.MULTI_LINE_COMMENT);
+      case POINT_IN_DIGIT -> Character.isDigit(character)
+          ? shift(State.POINT_IN_DIGIT)
+          : CharacterTypeChecker.isFloatingPointNumber(character)
+              ? shift(State.FLOAT_SUFFIX)
+              : identifierPart || character == '.'
+                  ? shift(State.ERROR)
+                  : emitPrevious(TokenType.FLOAT);
+      case POSSIBLE_ESCAPE_SEQUENCE -> CharacterTypeChecker.isEscapeSequence(character)
+          ? shift(State.STRING_LITERAL)
+          : shift(State.ERROR);
+      case POSSIBLE_ESCAPE_SEQUENCE_CHAR -> CharacterTypeChecker.isEscapeSequence(character)
+          ? shift(State.EXPECT_END_OF_CHAR)
+          : shift(State.ERROR);
+      case EXPECT_END_OF_CHAR -> character == '\''
+          ? emit(TokenType.CHAR, State.INITIAL)
+          : shift(State.ERROR);
+      case BINARY_DIGITS, HEX_DIGITS -> (state == State.BINARY_DIGITS
+                  ? CharacterTypeChecker.isBinary(character)
+                  : CharacterTypeChecker.isHex(character))
+              || character == '_'
+          ? shift(state)
+          : character == 'l' || character == 'L'
+              ? shift(State.INTEGER_SUFFIX)
+              : character == 'f' || character == 'F'
+                  ? shift(State.FLOAT_SUFFIX)
+                  : identifierPart ? shift(State.ERROR) : emitPrevious(TokenType.INT);
+      case INTEGER_SUFFIX -> identifierPart ? shift(State.ERROR) : emitPrevious(TokenType.INT);
+      case FLOAT_SUFFIX -> identifierPart ? shift(State.ERROR) : emitPrevious(TokenType.FLOAT);
+      case DIRECTIVE, INACTIVE_REGION -> shift(State.ERROR);
+    };
+  }
+
+  private static int initialTransition(char character) {
+    if (character == '/') {
+      return shift(State.SLASH);
+    } else if (Character.isWhitespace(character)) {
+      return emit(TokenType.WHITESPACE, State.INITIAL);
+    } else if (Character.isJavaIdentifierStart(character)) {
+      return shift(State.IDENTIFIER);
+    } else if (character == '0') {
+      return shift(State.ZERO_FIRST);
+    } else if (Character.isDigit(character)) {
+      return shift(State.NON_ZERO_DIGIT);
+    } else if (character == '\'') {
+      return shift(State.CHAR_LITERAL);
+    } else if (character == '\"') {
+      return shift(State.STRING_LITERAL);
+    } else if (character == '.') {
+      return shift(State.DOT);
+    } else if (CharacterTypeChecker.isSeparator(character)) {
+      return emit(TokenType.SEPARATOR, State.INITIAL);
+    } else if (character == '>') {
+      return shift(State.GREATER);
+    } else if (character == '<') {
+      return shift(State.LESS);
+    } else if (character == '&') {
+      return shift(State.AMPERSAND);
+    } else if (character == '^' || character == '!' || character == '*' || character == '=' || character == '%') {
+      return shift(State.SINGLE_OPERATOR);
+    } else if (character == ':') {
+      return shift(State.COLON);
+    } else if (character == '+') {
+      return shift(State.PLUS);
+    } else if (character == '-') {
+      return shift(State.MINUS);
+    } else if (character == '?' || character == '~') {
+      return emit(TokenType.OPERATOR, State.INITIAL);
+    } else if (character == '|') {
+      return shift(State.PIPE);
+    }
+    return shift(State.ERROR);
+  }
+}
@@ -0,0 +1,201 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.TokenType;
+import com.rmv.opk.entity.TokenSpan;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+public class TokenBuffer implements TokenSpanSink, Iterable<TokenSpan> {
+  private static final int CHUNK_SHIFT = 12;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+  @Getter private final CharSequence source;
+  private byte[][] types = new byte[4][];
+  private int[][] starts = new int[4][];
+  private int[][] lengths = new int[4][];
+  private int size;
+
+  public TokenBuffer(CharSequence source) {
+    this.source = source;
+  }
+
+  @Override
+  public void accept(TokenType type, int start, int length) {
+    int chunk = size >>> CHUNK_SHIFT;
+    int index = size & CHUNK_MASK;
+    if (index == 0) {
+      addChunk(chunk);
+    }
+    types[chunk][index] = (byte) type.ordinal();
+    starts[chunk][index] = start;
+    lengths[chunk][index] = length;
+    size++;
+  }
+
+  private void addChunk(int chunk) {
+    if (chunk == types.length) {
+      types = Arrays.copyOf(types, chunk * 2);
+      starts = Arrays.copyOf(starts, chunk * 2);
+      lengths = Arrays.copyOf(lengths, chunk * 2);
+    }
+    if (types[chunk] == null) {
+      types[chunk] = new byte[CHUNK_SIZE];
+      starts[chunk] = new int[CHUNK_SIZE];
+      lengths[chunk] = new int[CHUNK_SIZE];
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public TokenType getType(int index) {
+    checkIndex(index);
+    return TOKEN_TYPES[types[index >>> CHUNK_SHIFT][index & CHUNK_MASK]];
+  }
+
+  public int getStart(int index) {
+    checkIndex(index);
+    return starts[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  public int getLength(int index) {
+    checkIndex(index);
+    return lengths[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  public int getEnd(int index) {
+    return getStart(index) + getLength(index);
+  }
+
+  public String getData(int index) {
+    return TokenSpan.materialize(getType(index), source, getStart(index), getLength(index));
+  }
+
+  public TokenSpan get(int index) {
+    return new TokenSpan(getType(index), getStart(index), getLength(index), source);
+  }
+
+  public void forEach(TokenSpanSink sink) {
+    for (int index = 0; index < size; index++) {
+      int chunk = index >>> CHUNK_SHIFT;
+      int offset = index & CHUNK_MASK;
+      sink.accept(TOKEN_TYPES[types[chunk][offset]], starts[chunk][offset], lengths[chunk][offset]);
+    }
+  }
+
+  @Override
+  public Iterator<TokenSpan> iterator() {
+    return new IndexIterator(size, this::get);
+  }
+
+  public View filter(TokenType type, TokenType... otherTypes) {
+    return filter(EnumSet.of(type, otherTypes));
+  }
+
+  public View filter(Set<TokenType> tokenTypes) {
+    boolean[] accepted = new boolean[TOKEN_TYPES.length];
+    for (TokenType tokenType : tokenTypes) {
+      accepted[tokenType.ordinal()] = true;
+    }
+    int[] indexes = new int[Math.min(size, CHUNK_SIZE)];
+    int count = 0;
+    for (int index = 0; index < size; index++) {
+      if (accepted[types[index >>> CHUNK_SHIFT][index & CHUNK_MASK]]) {
+        if (count == indexes.length) {
+          indexes = Arrays.copyOf(indexes, Math.min(size, count * 2));
+        }
+        indexes[count++] = index;
+      }
+    }
+    return new View(indexes, count);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  public class View implements Iterable<TokenSpan> {
+    private final int[] indexes;
+    private final int size;
+
+    private View(int[] indexes, int size) {
+      this.indexes = indexes;
+      this.size = size;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public int indexOf(int viewIndex) {
+      if (viewIndex < 0 || viewIndex >= size) {
+        throw new IndexOutOfBoundsException("Index: " + viewIndex + ", Size: " + size);
+      }
+      return indexes[viewIndex];
+    }
+
+    public TokenType getType(int viewIndex) {
+      return TokenBuffer.this.getType(indexOf(viewIndex));
+    }
+
+    public int getStart(int viewIndex) {
+      return TokenBuffer.this.getStart(indexOf(viewIndex));
+    }
+
+    public int getLength(int viewIndex) {
+      return TokenBuffer.this.getLength(indexOf(viewIndex));
+    }
+
+    public String getData(int viewIndex) {
+      return TokenBuffer.this.getData(indexOf(viewIndex));
+    }
+
+    public TokenSpan get(int viewIndex) {
+      return TokenBuffer.this.get(indexOf(viewIndex));
+    }
+
+    @Override
+    public Iterator<TokenSpan> iterator() {
+      return new IndexIterator(size, this::get);
+    }
+  }
+
+  private static class IndexIterator implements Iterator<TokenSpan> {
+    private final int size;
+    private final IntFunction<TokenSpan> getter;
+    private int next;
+
+    private IndexIterator(int size, IntFunction<TokenSpan> getter) {
+      this.size = size;
+      this.getter = getter;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    @Override
+    public TokenSpan next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return getter.apply(next++);
+    }
+  }
+}
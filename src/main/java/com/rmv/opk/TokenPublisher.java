@@ -0,0 +1,149 @@
+package com.rmv.opk;
+
+import com.rmv.opk.entity.Token;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenPublisher implements Flow.Publisher<Token> {
+  private static final int MAX_TOKENS_PER_DRAIN = 1024;
+
+  private final Reader reader;
+  private final Executor executor;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  public TokenPublisher(Reader reader, Executor executor) {
+    this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader, 1 << 16);
+    this.executor = executor;
+  }
+
+  public TokenPublisher(ReadableByteChannel channel, Charset charset, Executor executor) {
+    this(Channels.newReader(channel, charset), executor);
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super Token> subscriber) {
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(new EmptySubscription());
+      subscriber.onError(new IllegalStateException("Token publisher supports a single subscriber"));
+      return;
+    }
+    TokenSubscription subscription =
+        new TokenSubscription(subscriber, new Lexer().tokenStream(reader));
+    subscriber.onSubscribe(subscription);
+  }
+
+  private class TokenSubscription implements Flow.Subscription {
+    private final Flow.Subscriber<? super Token> subscriber;
+    private final TokenStream tokens;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+    private volatile boolean done;
+    private volatile Throwable invalidRequest;
+
+    private TokenSubscription(Flow.Subscriber<? super Token> subscriber, TokenStream tokens) {
+      this.subscriber = subscriber;
+      this.tokens = tokens;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest =
+            new IllegalArgumentException("Requested token count must be positive: " + n);
+      } else {
+        demand.getAndAccumulate(
+            n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+      }
+      scheduleDrain();
+    }
+
+    @Override
+    public void cancel() {
+      done = true;
+      scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+      if (pendingDrains.getAndIncrement() == 0) {
+        executor.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      int missed = 1;
+      while (true) {
+        int emitted = 0;
+        while (!done && emitted < MAX_TOKENS_PER_DRAIN && demand.get() > 0) {
+          Token token;
+          try {
+            token = tokens.hasNext() ? tokens.next() : null;
+          } catch (UncheckedIOException e) {
+            fail(e.getCause());
+            break;
+          }
+          if (token == null) {
+            complete();
+            break;
+          }
+          demand.decrementAndGet();
+          emitted++;
+          try {
+            subscriber.onNext(token);
+          } catch (Throwable e) {
+            // a subscriber that throws from onNext is treated as having cancelled
+            done = true;
+          }
+        }
+        if (!done && invalidRequest != null) {
+          fail(invalidRequest);
+        }
+        if (done) {
+          closeQuietly();
+        } else if (emitted == MAX_TOKENS_PER_DRAIN && demand.get() > 0) {
+          executor.execute(this::drain);
+          return;
+        }
+        missed = pendingDrains.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void complete() {
+      done = true;
+      subscriber.onComplete();
+    }
+
+    private void fail(Throwable error) {
+      done = true;
+      subscriber.onError(error);
+    }
+
+    private void closeQuietly() {
+      try {
+        tokens.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  private static class EmptySubscription implements Flow.Subscription {
+    @Override
+    public void request(long n) {}
+
+    @Override
+    public void cancel() {}
+  }
+}
@@ -0,0 +1,8 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.TokenType;
+
+@FunctionalInterface
+public interface TokenSpanSink {
+  void accept(TokenType type, int start, int length);
+}
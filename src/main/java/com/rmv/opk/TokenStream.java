@@ -0,0 +1,74 @@
+package com.rmv.opk;
+
+import com.rmv.opk.entity.Token;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class TokenStream implements Iterator<Token>, Closeable {
+  private final Lexer lexer;
+  private final Reader reader;
+  private boolean finished;
+
+  TokenStream(Lexer lexer, Reader reader) {
+    this.lexer = lexer;
+    this.reader = reader;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!lexer.hasPendingTokens() && !finished) {
+      int lastReadInt;
+      try {
+        lastReadInt = reader.read();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (lastReadInt == -1) {
+        lexer.finish();
+        finished = true;
+      } else {
+        lexer.accept((char) lastReadInt);
+      }
+    }
+    return lexer.hasPendingTokens();
+  }
+
+  @Override
+  public Token next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return lexer.pollToken();
+  }
+
+  public Spliterator<Token> spliterator() {
+    return Spliterators.spliteratorUnknownSize(
+        this, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+  }
+
+  public Stream<Token> stream() {
+    return StreamSupport.stream(spliterator(), false).onClose(this::closeUnchecked);
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private void closeUnchecked() {
+    try {
+      close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.rmv.opk;
+
+import com.rmv.opk.entity.Token;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+public interface Tokenizer {
+  List<Token> getTokens(Reader reader) throws IOException;
+
+  List<Token> getTokens(CharSequence source);
+
+  List<Token> getSourceTokens(CharSequence source);
+
+  void getTokenSpans(CharSequence source, TokenSpanSink sink);
+}
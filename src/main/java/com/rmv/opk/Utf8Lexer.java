@@ -0,0 +1,156 @@
+package com.rmv.opk;
+
+import com.rmv.opk.entity.Token;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Utf8Lexer {
+  private static final char REPLACEMENT = '\uFFFD';
+  private static final int SCAN_CHUNK_SIZE = 1 << 16;
+
+  private final Lexer lexer;
+
+  public Utf8Lexer() {
+    this(new Lexer());
+  }
+
+  public Utf8Lexer(Lexer lexer) {
+    this.lexer = lexer;
+  }
+
+  public List<Token> getTokens(byte[] source) {
+    return getTokens(ByteBuffer.wrap(source));
+  }
+
+  public List<Token> getTokens(ByteBuffer source) {
+    List<Token> result = new ArrayList<>();
+    lexer.begin(result, null);
+    lex(source);
+    return result;
+  }
+
+  public List<Token> getSourceTokens(ByteBuffer source) {
+    List<Token> result = new ArrayList<>();
+    lexer.beginSourceTokens(result);
+    lex(source);
+    return result;
+  }
+
+  public void getTokenSpans(ByteBuffer source, TokenSpanSink sink) {
+    lexer.begin(new ArrayList<>(0), sink);
+    lex(source);
+  }
+
+  public LineMap getLineMap() {
+    return lexer.getLineMap();
+  }
+
+  private void lex(ByteBuffer source) {
+    try {
+      scan(source);
+      lexer.finish();
+    } finally {
+      lexer.end();
+    }
+  }
+
+  private void scan(ByteBuffer source) {
+    if (source.hasArray()) {
+      int from = source.arrayOffset() + source.position();
+      scan(source.array(), from, from + source.remaining());
+      return;
+    }
+    ByteBuffer remaining = source.duplicate();
+    byte[] chunk = new byte[Math.min(remaining.remaining(), SCAN_CHUNK_SIZE)];
+    int carried = 0;
+    while (remaining.hasRemaining()) {
+      int length = carried + Math.min(remaining.remaining(), chunk.length - carried);
+      remaining.get(chunk, carried, length - carried);
+      int end = remaining.hasRemaining() ? completeSequencesEnd(chunk, length) : length;
+      scan(chunk, 0, end);
+      carried = length - end;
+      System.arraycopy(chunk, end, chunk, 0, carried);
+    }
+  }
+
+  private void scan(byte[] bytes, int from, int to) {
+    int i = from;
+    while (i < to) {
+      i = lexer.appendAsciiRun(bytes, i, to);
+      if (i == to) {
+        break;
+      }
+      byte lead = bytes[i];
+      if (lead >= 0) {
+        lexer.accept((char) lead, 1);
+        i++;
+      } else {
+        i = decode(bytes, i, to);
+      }
+    }
+  }
+
+  private int decode(byte[] bytes, int from, int to) {
+    int length = sequenceLength(bytes[from]);
+    if (length == 0) {
+      lexer.accept(REPLACEMENT, 1);
+      return from + 1;
+    }
+    int codePoint = bytes[from] & (0x7F >> length);
+    for (int i = from + 1; i < from + length; i++) {
+      if (i == to
+          || (bytes[i] & 0xC0) != 0x80
+          || i == from + 1 && !isValidSecondByte(bytes[from], bytes[i])) {
+        lexer.accept(REPLACEMENT, i - from);
+        return i;
+      }
+      codePoint = codePoint << 6 | bytes[i] & 0x3F;
+    }
+    if (length == 3 && Character.isSurrogate((char) codePoint)) {
+      lexer.accept(REPLACEMENT, length);
+    } else if (length == 4) {
+      lexer.accept(Character.highSurrogate(codePoint), 2);
+      lexer.accept(Character.lowSurrogate(codePoint), 2);
+    } else {
+      lexer.accept((char) codePoint, length);
+    }
+    return from + length;
+  }
+
+  private static int completeSequencesEnd(byte[] bytes, int length) {
+    for (int i = length - 1; i >= Math.max(0, length - 3); i--) {
+      if ((bytes[i] & 0xC0) != 0x80) {
+        return bytes[i] < 0 && i + sequenceLength(bytes[i]) > length ? i : length;
+      }
+    }
+    return length;
+  }
+
+  private static int sequenceLength(byte lead) {
+    int value = lead & 0xFF;
+    if (value >= 0xC2 && value <= 0xDF) {
+      return 2;
+    } else if (value >= 0xE0 && value <= 0xEF) {
+      return 3;
+    } else if (value >= 0xF0 && value <= 0xF4) {
+      return 4;
+    }
+    return 0;
+  }
+
+  private static boolean isValidSecondByte(byte lead, byte second) {
+    int value = second & 0xFF;
+    switch (lead & 0xFF) {
+      case 0xE0:
+        return value >= 0xA0;
+      case 0xF0:
+        return value >= 0x90;
+      case 0xF4:
+        return value <= 0x8F;
+      default:
+        return true;
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package com.rmv.opk.batch;
+
+import com.rmv.opk.Lexer;
+import com.rmv.opk.LexerEngine;
+import com.rmv.opk.LexerListener;
+import com.rmv.opk.SymbolTable;
+import com.rmv.opk.Tokenizer;
+import com.rmv.opk.Utf8Lexer;
+import com.rmv.opk.cache.TokenCache;
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.io.SourceFiles;
+import lombok.Builder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Builder
+public class BatchLexer {
+  public enum ExecutionMode {
+    PLATFORM_THREADS,
+    VIRTUAL_THREADS;
+
+    public ExecutorService newExecutor(int workers) {
+      if (this == VIRTUAL_THREADS) {
+        try {
+          return (ExecutorService)
+              Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+          throw new UnsupportedOperationException("Virtual threads require Java 21 or newer", e);
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+      }
+      return Executors.newFixedThreadPool(workers);
+    }
+  }
+
+  @FunctionalInterface
+  public interface FileTokensHandler {
+    void accept(Path file, List<Token> tokens);
+  }
+
+  @Builder.Default private final int workers = Runtime.getRuntime().availableProcessors();
+  @Builder.Default private final int queueCapacity = 1024;
+  @Builder.Default private final ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+  @Builder.Default private final Charset charset = StandardCharsets.UTF_8;
+  @Builder.Default private final LexerEngine engine = LexerEngine.STATE_MACHINE;
+  @Builder.Default private final String fileExtension = ".cs";
+  @Builder.Default private final int maxTokenLength = Integer.MAX_VALUE;
+  private final TokenCache tokenCache;
+  private final SymbolTable symbolTable;
+  private final LexerListener listener;
+  private final boolean directUtf8;
+  private final Set<String> preprocessorSymbols;
+
+  public BatchStatistics lexTree(Path root, FileTokensHandler handler) throws IOException {
+    try (Stream<Path> files = Files.walk(root)) {
+      return lex(
+          files
+              .filter(Files::isRegularFile)
+              .filter(file -> file.getFileName().toString().endsWith(fileExtension))
+              .iterator(),
+          handler);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  public BatchStatistics lex(List<Path> files, FileTokensHandler handler) {
+    return lex(files.iterator(), handler);
+  }
+
+  public BatchStatistics lex(Iterator<Path> files, FileTokensHandler handler) {
+    checkCacheCompatibility();
+    BatchStatistics statistics = new BatchStatistics();
+    Semaphore queueSlots = new Semaphore(queueCapacity);
+    long start = System.nanoTime();
+    ExecutorService executor = executionMode.newExecutor(workers);
+    try {
+      while (files.hasNext()) {
+        Path file = files.next();
+        queueSlots.acquireUninterruptibly();
+        try {
+          executor.execute(
+              () -> {
+                try {
+                  lexFile(file, handler, statistics);
+                } finally {
+                  queueSlots.release();
+                }
+              });
+        } catch (RuntimeException e) {
+          queueSlots.release();
+          throw e;
+        }
+      }
+    } finally {
+      executor.shutdown();
+      awaitTermination(executor);
+    }
+    statistics.setElapsedNanos(System.nanoTime() - start);
+    return statistics;
+  }
+
+  private void lexFile(Path file, FileTokensHandler handler, BatchStatistics statistics) {
+    try {
+      if (tokenCache != null) {
+        lexCachedFile(file, handler, statistics);
+        return;
+      }
+      if (directUtf8
+          && charset.equals(StandardCharsets.UTF_8)
+          && engine == LexerEngine.STATE_MACHINE) {
+        lexUtf8File(file, handler, statistics);
+        return;
+      }
+      CharBuffer source = SourceFiles.readChars(file, charset);
+      long start = System.nanoTime();
+      Tokenizer tokenizer = newTokenizer();
+      if (handler == null) {
+        tokenizer.getTokenSpans(source, (type, tokenStart, length) -> statistics.recordToken(type));
+      } else {
+        List<Token> tokens = tokenizer.getSourceTokens(source);
+        for (Token token : tokens) {
+          statistics.recordToken(token.getType());
+        }
+        handler.accept(file, tokens);
+      }
+      statistics.recordFile(source.remaining(), System.nanoTime() - start);
+    } catch (IOException | RuntimeException e) {
+      statistics.recordFailure(file, e);
+    }
+  }
+
+  private void lexUtf8File(Path file, FileTokensHandler handler, BatchStatistics statistics)
+      throws IOException {
+    ByteBuffer source = SourceFiles.readBytes(file);
+    long start = System.nanoTime();
+    Lexer lexer = new Lexer(symbolTable);
+    lexer.setListener(listener);
+    lexer.setMaxTokenLength(maxTokenLength);
+    lexer.setPreprocessorSymbols(preprocessorSymbols);
+    Utf8Lexer utf8Lexer = new Utf8Lexer(lexer);
+    if (handler == null) {
+      utf8Lexer.getTokenSpans(source, (type, tokenStart, length) -> statistics.recordToken(type));
+    } else {
+      List<Token> tokens = utf8Lexer.getSourceTokens(source);
+      for (Token token : tokens) {
+        statistics.recordToken(token.getType());
+      }
+      handler.accept(file, tokens);
+    }
+    statistics.recordFile(source.remaining(), System.nanoTime() - start);
+  }
+
+  private void lexCachedFile(Path file, FileTokensHandler handler, BatchStatistics statistics)
+      throws IOException {
+    byte[] content = Files.readAllBytes(file);
+    long start = System.nanoTime();
+    List<Token> tokens =
+        tokenCache.getTokens(content, newTokenizer()::getSourceTokens, cacheConfiguration());
+    for (Token token : tokens) {
+      statistics.recordToken(token.getType());
+    }
+    if (handler != null) {
+      handler.accept(file, tokens);
+    }
+    statistics.recordFile(content.length, System.nanoTime() - start);
+  }
+
+  private Tokenizer newTokenizer() {
+    Tokenizer tokenizer = engine.create(symbolTable);
+    if (tokenizer instanceof Lexer) {
+      ((Lexer) tokenizer).setListener(listener);
+      ((Lexer) tokenizer).setMaxTokenLength(maxTokenLength);
+      ((Lexer) tokenizer).setPreprocessorSymbols(preprocessorSymbols);
+    }
+    return tokenizer;
+  }
+
+  private String cacheConfiguration() {
+    String symbols =
+        preprocessorSymbols == null ? "-" : String.join(",", new TreeSet<>(preprocessorSymbols));
+    return engine.name() + "/" + maxTokenLength + "/" + symbols;
+  }
+
+  private void checkCacheCompatibility() {
+    if (tokenCache == null) {
+      return;
+    }
+    if (listener != null) {
+      throw new IllegalArgumentException("A listener cannot be combined with a token cache");
+    }
+    if (!tokenCache.getCharset().equals(charset)) {
+      throw new IllegalArgumentException(
+          "Token cache charset " + tokenCache.getCharset() + " does not match " + charset);
+    }
+  }
+
+  private static void awaitTermination(ExecutorService executor) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+          break;
+        }
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
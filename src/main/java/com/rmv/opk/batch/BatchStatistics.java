@@ -0,0 +1,97 @@
+package com.rmv.opk.batch;
+
+import com.rmv.opk.constants.TokenType;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BatchStatistics {
+  private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+  private final LongAdder files = new LongAdder();
+  private final LongAdder characters = new LongAdder();
+  private final LongAdder lexingNanos = new LongAdder();
+  private final LongAdder[] tokensByType = new LongAdder[TOKEN_TYPES.length];
+  private final Map<Path, String> failures = new ConcurrentHashMap<>();
+  private volatile long elapsedNanos;
+
+  BatchStatistics() {
+    for (int i = 0; i < tokensByType.length; i++) {
+      tokensByType[i] = new LongAdder();
+    }
+  }
+
+  void recordFile(long fileCharacters, long nanos) {
+    files.increment();
+    characters.add(fileCharacters);
+    lexingNanos.add(nanos);
+  }
+
+  void recordToken(TokenType type) {
+    tokensByType[type.ordinal()].increment();
+  }
+
+  void recordFailure(Path file, Exception exception) {
+    failures.put(file, String.valueOf(exception.getMessage()));
+  }
+
+  void setElapsedNanos(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public long getFiles() {
+    return files.sum();
+  }
+
+  public long getCharacters() {
+    return characters.sum();
+  }
+
+  public long getTokens() {
+    long tokens = 0;
+    for (LongAdder counter : tokensByType) {
+      tokens += counter.sum();
+    }
+    return tokens;
+  }
+
+  public long getTokens(TokenType type) {
+    return tokensByType[type.ordinal()].sum();
+  }
+
+  public Map<TokenType, Long> getTokensByType() {
+    Map<TokenType, Long> result = new EnumMap<>(TokenType.class);
+    for (TokenType type : TOKEN_TYPES) {
+      result.put(type, getTokens(type));
+    }
+    return result;
+  }
+
+  public Map<Path, String> getFailures() {
+    return Collections.unmodifiableMap(failures);
+  }
+
+  public long getLexingTime(TimeUnit unit) {
+    return unit.convert(lexingNanos.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  public long getElapsedTime(TimeUnit unit) {
+    return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return "files=" + getFiles()
+        + ", failed=" + failures.size()
+        + ", characters=" + getCharacters()
+        + ", tokens=" + getTokens()
+        + ", elapsedMs=" + getElapsedTime(TimeUnit.MILLISECONDS)
+        + ", lexingMs=" + getLexingTime(TimeUnit.MILLISECONDS)
+        + ", byType=" + getTokensByType();
+  }
+}
@@ -0,0 +1,267 @@
+package com.rmv.opk.cache;
+
+import com.rmv.opk.Lexer;
+import com.rmv.opk.LexerEngine;
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.io.BinaryTokenReader;
+import com.rmv.opk.io.BinaryTokenWriter;
+import com.rmv.opk.io.SourceFiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class TokenCache {
+  private static final String ENTRY_SUFFIX = ".tokens";
+  private static final String LOCK_FILE = ".lock";
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final Path directory;
+  private final long maxBytes;
+  private final LexerEngine engine;
+  private final Charset charset;
+  private final AtomicLong sizeBytes = new AtomicLong();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public TokenCache(Path directory, long maxBytes) throws IOException {
+    this(directory, maxBytes, LexerEngine.STATE_MACHINE, StandardCharsets.UTF_8);
+  }
+
+  public TokenCache(Path directory, long maxBytes, LexerEngine engine, Charset charset)
+      throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.maxBytes = maxBytes;
+    this.engine = engine;
+    this.charset = charset;
+    long size = 0;
+    for (Entry entry : entries()) {
+      size += entry.size;
+    }
+    sizeBytes.set(size);
+  }
+
+  public List<Token> getTokens(Path sourceFile) throws IOException {
+    return getTokens(Files.readAllBytes(sourceFile));
+  }
+
+  public List<Token> getTokens(byte[] content) throws IOException {
+    return getTokens(content, engine.create()::getTokens, engine.name());
+  }
+
+  public List<Token> getTokens(
+      byte[] content, Function<CharSequence, List<Token>> lexer, String configuration)
+      throws IOException {
+    Path entry = entryPath(key(content, configuration));
+    List<Token> cached = read(entry);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    List<Token> tokens = lexer.apply(SourceFiles.decode(ByteBuffer.wrap(content), charset));
+    write(entry, tokens);
+    evictIfNeeded();
+    return tokens;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public long getSizeBytes() {
+    return sizeBytes.get();
+  }
+
+  public Charset getCharset() {
+    return charset;
+  }
+
+  private List<Token> read(Path entry) throws IOException {
+    try {
+      List<Token> tokens = BinaryTokenReader.open(entry).readAll();
+      try {
+        Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      } catch (IOException e) {
+        // the entry was evicted by another process after it was read
+      }
+      return tokens;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | IllegalStateException e) {
+      delete(entry);
+      return null;
+    }
+  }
+
+  private void write(Path entry, List<Token> tokens) throws IOException {
+    Files.createDirectories(entry.getParent());
+    Path temporary = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream output = Files.newOutputStream(temporary);
+          BinaryTokenWriter writer = new BinaryTokenWriter(output)) {
+        writer.writeAll(tokens);
+      }
+      long size = Files.size(temporary);
+      writeLock.lock();
+      try {
+        long replaced = sizeOf(entry);
+        try {
+          Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+        }
+        sizeBytes.addAndGet(size - replaced);
+      } finally {
+        writeLock.unlock();
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  private void delete(Path entry) throws IOException {
+    writeLock.lock();
+    try {
+      long size = sizeOf(entry);
+      if (Files.deleteIfExists(entry)) {
+        sizeBytes.addAndGet(-size);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private static long sizeOf(Path entry) throws IOException {
+    try {
+      return Files.size(entry);
+    } catch (NoSuchFileException e) {
+      return 0;
+    }
+  }
+
+  private void evictIfNeeded() throws IOException {
+    if (sizeBytes.get() <= maxBytes || !evictionLock.tryLock()) {
+      return;
+    }
+    try (FileChannel lockChannel =
+            FileChannel.open(
+                directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = lockChannel.tryLock()) {
+      if (lock != null) {
+        evict();
+      }
+    } catch (OverlappingFileLockException e) {
+      // another cache instance in this JVM is already evicting
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void evict() throws IOException {
+    List<Entry> entries = entries();
+    entries.sort(Comparator.comparing(entry -> entry.lastAccess));
+    long size = 0;
+    for (Entry entry : entries) {
+      size += entry.size;
+    }
+    long target = maxBytes - maxBytes / 10;
+    for (Entry entry : entries) {
+      if (size <= target) {
+        break;
+      }
+      if (Files.deleteIfExists(entry.path)) {
+        evictions.increment();
+      }
+      size -= entry.size;
+    }
+    sizeBytes.set(size);
+  }
+
+  private List<Entry> entries() throws IOException {
+    List<Entry> entries = new ArrayList<>();
+    try (Stream<Path> paths = Files.walk(directory, 2)) {
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        if (!path.getFileName().toString().endsWith(ENTRY_SUFFIX)) {
+          continue;
+        }
+        try {
+          BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+          entries.add(new Entry(path, attributes.size(), attributes.lastModifiedTime()));
+        } catch (NoSuchFileException e) {
+          // removed concurrently
+        }
+      }
+    }
+    return entries;
+  }
+
+  private Path entryPath(String key) {
+    return directory.resolve(key.substring(0, 2)).resolve(key.substring(2) + ENTRY_SUFFIX);
+  }
+
+  private String key(byte[] content, String configuration) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    digest.update(
+        ("lexer-" + Lexer.VERSION + "/" + charset.name() + "/" + configuration + "/")
+            .getBytes(StandardCharsets.UTF_8));
+    byte[] hash = digest.digest(content);
+    char[] key = new char[hash.length * 2];
+    for (int i = 0; i < hash.length; i++) {
+      key[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+      key[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+    }
+    return new String(key);
+  }
+
+  private static class Entry {
+    private final Path path;
+    private final long size;
+    private final FileTime lastAccess;
+
+    private Entry(Path path, long size, FileTime lastAccess) {
+      this.path = path;
+      this.size = size;
+      this.lastAccess = lastAccess;
+    }
+  }
+}
@@ -1,47 +1,67 @@
 package com.rmv.opk.checkers;
 
-import java.util.regex.Pattern;
-
 public class CharacterTypeChecker {
-  public static boolean isSeparator(Character character) {
-    return character == '('
-        || character == ')'
-        || character == '{'
-        || character == '}'
-        || character == '['
-        || character == ']'
-        || character == ';'
-        || character == ','
-        || character == '.';
-  }
-
-  public static boolean isOperator(Character character) {
-    return character == '='
-        || character == '>'
-        || character == '<'
-        || character == '!'
-        || character == '~'
-        || character == ':'
-        || character == '?'
-        || character == '&'
-        || character == '|'
-        || character == '+'
-        || character == '-'
-        || character == '*'
-        || character == '/'
-        || character == '^'
-        || character == '%';
-  }
-
-  public static boolean isBinary(Character character) {
-    return character == '0' || character == '1';
-  }
-
-  public static boolean isHex(Character character) {
-    return Pattern.matches("\\d|[a-fA-F]", character.toString());
-  }
-
-  public static boolean isFloatingPointNumber(Character character) {
-    return character == 'f' || character == 'F' || character == 'd' || character == 'D';
+  private static final byte SEPARATOR = 1;
+  private static final byte OPERATOR = 1 << 1;
+  private static final byte BINARY = 1 << 2;
+  private static final byte HEX = 1 << 3;
+  private static final byte FLOATING_POINT_SUFFIX = 1 << 4;
+  private static final byte ESCAPE_SEQUENCE = 1 << 5;
+  private static final byte IDENTIFIER_PART = 1 << 6;
+
+  private static final byte[] ASCII_TYPES = new byte[128];
+
+  static {
+    mark("(){}[];,.", SEPARATOR);
+    mark("=><!~:?&|+-*/^%", OPERATOR);
+    mark("01", BINARY);
+    mark("0123456789abcdefABCDEF", HEX);
+    mark("fFdD", FLOATING_POINT_SUFFIX);
+    mark("btnrf", ESCAPE_SEQUENCE);
+    for (char character = 0; character < 128; character++) {
+      if (Character.isJavaIdentifierPart(character)) {
+        ASCII_TYPES[character] |= IDENTIFIER_PART;
+      }
+    }
+  }
+
+  private static void mark(String characters, byte type) {
+    for (int i = 0; i < characters.length(); i++) {
+      ASCII_TYPES[characters.charAt(i)] |= type;
+    }
+  }
+
+  private static boolean is(char character, byte type) {
+    return character < 128 && (ASCII_TYPES[character] & type) != 0;
+  }
+
+  public static boolean isSeparator(char character) {
+    return is(character, SEPARATOR);
+  }
+
+  public static boolean isOperator(char character) {
+    return is(character, OPERATOR);
+  }
+
+  public static boolean isBinary(char character) {
+    return is(character, BINARY);
+  }
+
+  public static boolean isHex(char character) {
+    return is(character, HEX);
+  }
+
+  public static boolean isFloatingPointNumber(char character) {
+    return is(character, FLOATING_POINT_SUFFIX);
+  }
+
+  public static boolean isEscapeSequence(char character) {
+    return is(character, ESCAPE_SEQUENCE);
+  }
+
+  public static boolean isIdentifierPart(char character) {
+    return character < 128
+        ? (ASCII_TYPES[character] & IDENTIFIER_PART) != 0
+        : Character.isJavaIdentifierPart(character);
   }
 }
@@ -0,0 +1,109 @@
+package com.rmv.opk.checkers;
+
+import com.rmv.opk.constants.Keywords;
+import com.rmv.opk.constants.TokenType;
+
+import java.util.List;
+
+public class KeywordMatcher {
+  private static final int TABLE_SIZE = 512;
+  private static final int MASK = TABLE_SIZE - 1;
+  private static final int MAX_LENGTH;
+  private static final int SEED;
+  private static final char[][] WORDS = new char[TABLE_SIZE][];
+  private static final TokenType[] TYPES = new TokenType[TABLE_SIZE];
+
+  static {
+    List<String> keywords = Keywords.getKeywordsList();
+    int maxLength = 0;
+    for (String keyword : keywords) {
+      maxLength = Math.max(maxLength, keyword.length());
+    }
+    MAX_LENGTH = maxLength;
+    SEED = findCollisionFreeSeed(keywords);
+    for (String keyword : keywords) {
+      int slot = hash(keyword, 0, keyword.length(), SEED) & MASK;
+      WORDS[slot] = keyword.toCharArray();
+      TYPES[slot] = typeOf(keyword);
+    }
+  }
+
+  public static TokenType identifierType(CharSequence characters, int start, int end) {
+    int length = end - start;
+    if (length > MAX_LENGTH || length == 0) {
+      return TokenType.IDENTIFIER;
+    }
+    int slot = hash(characters, start, end, SEED) & MASK;
+    char[] word = WORDS[slot];
+    if (word == null || word.length != length) {
+      return TokenType.IDENTIFIER;
+    }
+    for (int i = 0; i < length; i++) {
+      if (word[i] != characters.charAt(start + i)) {
+        return TokenType.IDENTIFIER;
+      }
+    }
+    return TYPES[slot];
+  }
+
+  public static TokenType identifierType(char[] characters, int start, int end) {
+    int length = end - start;
+    if (length > MAX_LENGTH || length == 0) {
+      return TokenType.IDENTIFIER;
+    }
+    int hash = length;
+    for (int i = start; i < end; i++) {
+      hash = hash * SEED + characters[i];
+    }
+    int slot = (hash ^ hash >>> 16) & MASK;
+    char[] word = WORDS[slot];
+    if (word == null || word.length != length) {
+      return TokenType.IDENTIFIER;
+    }
+    for (int i = 0; i < length; i++) {
+      if (word[i] != characters[start + i]) {
+        return TokenType.IDENTIFIER;
+      }
+    }
+    return TYPES[slot];
+  }
+
+  public static boolean isKeyword(CharSequence characters, int start, int end) {
+    return identifierType(characters, start, end) != TokenType.IDENTIFIER;
+  }
+
+  private static int hash(CharSequence characters, int start, int end, int seed) {
+    int hash = end - start;
+    for (int i = start; i < end; i++) {
+      hash = hash * seed + characters.charAt(i);
+    }
+    return hash ^ hash >>> 16;
+  }
+
+  private static int findCollisionFreeSeed(List<String> keywords) {
+    for (int seed = 31; ; seed += 2) {
+      boolean[] used = new boolean[TABLE_SIZE];
+      boolean collisionFree = true;
+      for (String keyword : keywords) {
+        int slot = hash(keyword, 0, keyword.length(), seed) & MASK;
+        if (used[slot]) {
+          collisionFree = false;
+          break;
+        }
+        used[slot] = true;
+      }
+      if (collisionFree) {
+        return seed;
+      }
+    }
+  }
+
+  private static TokenType typeOf(String keyword) {
+    if (StringTypeChecker.isNull(keyword)) {
+      return TokenType.NULL;
+    } else if (StringTypeChecker.isBoolean(keyword)) {
+      return TokenType.BOOLEAN;
+    }
+    return TokenType.KEYWORD;
+  }
+}
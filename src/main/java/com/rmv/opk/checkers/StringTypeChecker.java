@@ -1,10 +1,8 @@
 package com.rmv.opk.checkers;
 
-import com.rmv.opk.constants.Keywords;
-
 public class StringTypeChecker {
   public static boolean isKeyword(String string) {
-    return Keywords.getKeywordsList().contains(string);
+    return KeywordMatcher.isKeyword(string, 0, string.length());
   }
 
   public static boolean isSpecial(String string) {
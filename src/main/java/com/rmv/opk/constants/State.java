@@ -32,4 +32,6 @@ public enum State {
     STAR_IN_MULTI_LINE_COMMENT,
     FLOAT_SUFFIX,
     DOUBLE_DOT,
+    DIRECTIVE,
+    INACTIVE_REGION,
 }
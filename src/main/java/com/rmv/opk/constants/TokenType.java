@@ -13,5 +13,6 @@ public enum TokenType {
   BOOLEAN,
   NULL,
   KEYWORD,
-  ERROR
+  ERROR,
+  PREPROCESSOR
 }
@@ -0,0 +1,14 @@
+package com.rmv.opk.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TokenChange {
+  private final int firstTokenIndex;
+  private final int removedTokenCount;
+  private final List<Token> insertedTokens;
+}
@@ -0,0 +1,44 @@
+package com.rmv.opk.entity;
+
+import com.rmv.opk.constants.TokenType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TokenSpan {
+  private final TokenType type;
+  private final int start;
+  private final int length;
+
+  @Getter(AccessLevel.NONE)
+  private final CharSequence source;
+
+  public int getEnd() {
+    return start + length;
+  }
+
+  public String getData() {
+    return materialize(type, source, start, length);
+  }
+
+  public Token toToken() {
+    return new Token(type, getData());
+  }
+
+  public static String materialize(TokenType type, CharSequence source, int start, int length) {
+    if (type != TokenType.STRING) {
+      return source.subSequence(start, start + length).toString();
+    }
+    StringBuilder data = new StringBuilder(length);
+    int end = start + length;
+    for (int i = start; i < end; i++) {
+      char character = source.charAt(i);
+      if (character != '\\' || i + 1 >= end || source.charAt(i + 1) != '"') {
+        data.append(character);
+      }
+    }
+    return data.toString();
+  }
+}
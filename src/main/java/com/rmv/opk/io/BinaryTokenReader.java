@@ -0,0 +1,182 @@
+package com.rmv.opk.io;
+
+import com.rmv.opk.constants.TokenType;
+import com.rmv.opk.entity.Token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.rmv.opk.io.TokenBinaryFormat.*;
+
+public class BinaryTokenReader implements Iterator<Token> {
+  private final ByteBuffer buffer;
+  private final TokenType[] types;
+  private final boolean withOffsets;
+  private final List<String> symbols = new ArrayList<>();
+  private final List<TokenType> symbolTypes = new ArrayList<>();
+
+  private TokenType type;
+  private int dataEnd;
+  private int dataLength;
+  private String data;
+  private int start;
+  private int length;
+  private int previousEnd;
+
+  public BinaryTokenReader(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer.duplicate();
+    if (this.buffer.remaining() < 6 || this.buffer.getInt() != MAGIC) {
+      throw new IOException("Not a binary token stream");
+    }
+    int version = this.buffer.get();
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary token stream version " + version);
+    }
+    withOffsets = (this.buffer.get() & FLAG_OFFSETS) != 0;
+    types = new TokenType[readNonNegativeVarInt()];
+    for (int i = 0; i < types.length; i++) {
+      int nameLength = skipString();
+      String name = decode(this.buffer.position(), nameLength);
+      try {
+        types[i] = TokenType.valueOf(name);
+      } catch (IllegalArgumentException e) {
+        throw new IOException("Unknown token type " + name, e);
+      }
+    }
+  }
+
+  public static BinaryTokenReader open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new BinaryTokenReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  public boolean hasOffsets() {
+    return withOffsets;
+  }
+
+  public boolean advance() {
+    if (!buffer.hasRemaining()) {
+      return false;
+    }
+    int header = readNonNegativeVarInt();
+    data = null;
+    if (header >= FIRST_SYMBOL_REFERENCE) {
+      int symbol = header - FIRST_SYMBOL_REFERENCE;
+      if (symbol >= symbols.size()) {
+        throw new IllegalStateException("Corrupted token stream: unknown symbol " + symbol);
+      }
+      type = symbolTypes.get(symbol);
+      data = symbols.get(symbol);
+    } else {
+      int typeIndex = readNonNegativeVarInt();
+      if (typeIndex >= types.length) {
+        throw new IllegalStateException("Corrupted token stream: unknown type " + typeIndex);
+      }
+      type = types[typeIndex];
+      dataLength = skipString();
+      dataEnd = buffer.position();
+      if (header == NEW_SYMBOL) {
+        data = decode(dataEnd, dataLength);
+        symbols.add(data);
+        symbolTypes.add(type);
+      }
+    }
+    if (withOffsets) {
+      int gap = readVarInt();
+      start = previousEnd + ((gap >>> 1) ^ -(gap & 1));
+      length = readNonNegativeVarInt();
+      previousEnd = start + length;
+    }
+    return true;
+  }
+
+  public TokenType getType() {
+    return type;
+  }
+
+  public String getData() {
+    if (data == null) {
+      data = decode(dataEnd, dataLength);
+    }
+    return data;
+  }
+
+  public int getStart() {
+    requireOffsets();
+    return start;
+  }
+
+  public int getLength() {
+    requireOffsets();
+    return length;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return buffer.hasRemaining();
+  }
+
+  @Override
+  public Token next() {
+    if (!advance()) {
+      throw new NoSuchElementException();
+    }
+    return new Token(type, getData());
+  }
+
+  public List<Token> readAll() {
+    List<Token> tokens = new ArrayList<>();
+    forEachRemaining(tokens::add);
+    return tokens;
+  }
+
+  private void requireOffsets() {
+    if (!withOffsets) {
+      throw new IllegalStateException("Token stream was written without source offsets");
+    }
+  }
+
+  private int skipString() {
+    int byteLength = readNonNegativeVarInt();
+    if (byteLength > buffer.remaining()) {
+      throw new IllegalStateException("Corrupted token stream: truncated string");
+    }
+    buffer.position(buffer.position() + byteLength);
+    return byteLength;
+  }
+
+  private String decode(int end, int byteLength) {
+    return TokenBinaryFormat.decode(buffer, end - byteLength, byteLength);
+  }
+
+  private int readNonNegativeVarInt() {
+    int value = readVarInt();
+    if (value < 0) {
+      throw new IllegalStateException("Corrupted token stream: negative value " + value);
+    }
+    return value;
+  }
+
+  private int readVarInt() {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (!buffer.hasRemaining()) {
+        throw new IllegalStateException("Corrupted token stream: truncated varint");
+      }
+      byte current = buffer.get();
+      value |= (current & 0x7F) << shift;
+      if (current >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalStateException("Corrupted token stream: varint too long");
+  }
+}
@@ -0,0 +1,136 @@
+package com.rmv.opk.io;
+
+import com.rmv.opk.TokenSpanSink;
+import com.rmv.opk.constants.TokenType;
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.entity.TokenSpan;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.rmv.opk.io.TokenBinaryFormat.*;
+
+public class BinaryTokenWriter implements TokenWriter {
+  private final DataOutputStream output;
+  private final boolean withOffsets;
+  private final Map<TokenType, Map<String, Integer>> symbols = new EnumMap<>(TokenType.class);
+  private int symbolCount;
+  private boolean headerWritten;
+  private int previousEnd;
+
+  public BinaryTokenWriter(OutputStream output) {
+    this(output, false);
+  }
+
+  public BinaryTokenWriter(OutputStream output, boolean withOffsets) {
+    this.output = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+    this.withOffsets = withOffsets;
+  }
+
+  @Override
+  public void write(Token token) throws IOException {
+    if (withOffsets) {
+      throw new IllegalStateException("Token has no source offsets, write a TokenSpan instead");
+    }
+    writeData(token.getType(), token.getData());
+  }
+
+  public void write(TokenSpan span) throws IOException {
+    write(span.getType(), span.getData(), span.getStart(), span.getLength());
+  }
+
+  public void write(TokenType type, String data, int start, int length) throws IOException {
+    writeData(type, data);
+    if (withOffsets) {
+      writeVarInt(zigZag(start - previousEnd));
+      writeVarInt(length);
+      previousEnd = start + length;
+    }
+  }
+
+  @Override
+  public TokenSpanSink asSpanSink(CharSequence source) {
+    return (type, start, length) -> {
+      try {
+        write(type, TokenSpan.materialize(type, source, start, length), start, length);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+
+  private void writeData(TokenType type, String data) throws IOException {
+    ensureHeader();
+    if (!SYMBOL_TYPES.contains(type) || data.length() > MAX_SYMBOL_LENGTH) {
+      writeLiteral(LITERAL, type, data);
+      return;
+    }
+    Map<String, Integer> typeSymbols = symbols.computeIfAbsent(type, key -> new HashMap<>());
+    Integer symbol = typeSymbols.get(data);
+    if (symbol != null) {
+      writeVarInt(FIRST_SYMBOL_REFERENCE + symbol);
+    } else if (symbolCount < MAX_SYMBOLS) {
+      typeSymbols.put(data, symbolCount++);
+      writeLiteral(NEW_SYMBOL, type, data);
+    } else {
+      writeLiteral(LITERAL, type, data);
+    }
+  }
+
+  private void writeLiteral(int kind, TokenType type, String data) throws IOException {
+    writeVarInt(kind);
+    writeVarInt(type.ordinal());
+    writeString(data);
+  }
+
+  private void ensureHeader() throws IOException {
+    if (headerWritten) {
+      return;
+    }
+    headerWritten = true;
+    output.writeInt(MAGIC);
+    output.writeByte(VERSION);
+    output.writeByte(withOffsets ? FLAG_OFFSETS : 0);
+    TokenType[] types = TokenType.values();
+    writeVarInt(types.length);
+    for (TokenType type : types) {
+      writeString(type.name());
+    }
+  }
+
+  private void writeString(String value) throws IOException {
+    byte[] bytes = encode(value);
+    writeVarInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  private static int zigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureHeader();
+    output.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    ensureHeader();
+    output.close();
+  }
+}
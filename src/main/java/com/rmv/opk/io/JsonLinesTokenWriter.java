@@ -0,0 +1,70 @@
+package com.rmv.opk.io;
+
+import com.rmv.opk.entity.Token;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class JsonLinesTokenWriter implements TokenWriter {
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final Writer writer;
+
+  public JsonLinesTokenWriter(OutputStream output) {
+    this(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+  }
+
+  public JsonLinesTokenWriter(Writer writer) {
+    this.writer = new BufferedWriter(writer, 1 << 16);
+  }
+
+  @Override
+  public void write(Token token) throws IOException {
+    writer.write("{\"type\":\"");
+    writer.write(token.getType().name());
+    writer.write("\",\"data\":\"");
+    writeEscaped(token.getData());
+    writer.write("\"}\n");
+  }
+
+  private void writeEscaped(String data) throws IOException {
+    int unescapedFrom = 0;
+    for (int i = 0; i < data.length(); i++) {
+      char character = data.charAt(i);
+      if (character >= 0x20 && character != '"' && character != '\\') {
+        continue;
+      }
+      writer.write(data, unescapedFrom, i - unescapedFrom);
+      unescapedFrom = i + 1;
+      switch (character) {
+        case '"' -> writer.write("\\\"");
+        case '\\' -> writer.write("\\\\");
+        case '\n' -> writer.write("\\n");
+        case '\r' -> writer.write("\\r");
+        case '\t' -> writer.write("\\t");
+        case '\b' -> writer.write("\\b");
+        case '\f' -> writer.write("\\f");
+        default -> {
+          writer.write("\\u00");
+          writer.write(HEX_DIGITS[character >> 4]);
+          writer.write(HEX_DIGITS[character & 0xF]);
+        }
+      }
+    }
+    writer.write(data, unescapedFrom, data.length() - unescapedFrom);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
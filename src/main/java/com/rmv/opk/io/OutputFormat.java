@@ -0,0 +1,27 @@
+package com.rmv.opk.io;
+
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+public enum OutputFormat {
+  TEXT {
+    @Override
+    public TokenWriter open(OutputStream output, Charset charset) {
+      return new TextTokenWriter(output, charset);
+    }
+  },
+  JSON_LINES {
+    @Override
+    public TokenWriter open(OutputStream output, Charset charset) {
+      return new JsonLinesTokenWriter(output);
+    }
+  },
+  BINARY {
+    @Override
+    public TokenWriter open(OutputStream output, Charset charset) {
+      return new BinaryTokenWriter(output);
+    }
+  };
+
+  public abstract TokenWriter open(OutputStream output, Charset charset);
+}
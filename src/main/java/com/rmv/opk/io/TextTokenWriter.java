@@ -0,0 +1,57 @@
+package com.rmv.opk.io;
+
+import com.rmv.opk.entity.Token;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+public class TextTokenWriter implements TokenWriter {
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+
+  private final Writer writer;
+
+  public TextTokenWriter(OutputStream output, Charset charset) {
+    this(new OutputStreamWriter(output, charset));
+  }
+
+  public TextTokenWriter(Writer writer) {
+    this.writer = new BufferedWriter(writer, 1 << 16);
+  }
+
+  @Override
+  public void write(Token token) throws IOException {
+    writer.write('(');
+    writer.write(token.getType().name());
+    writer.write(' ');
+    writer.write(escapeNewLineSymbols(token.getData()));
+    writer.write(')');
+    writer.write(LINE_SEPARATOR);
+  }
+
+  private static String escapeNewLineSymbols(String data) {
+    switch (data) {
+      case "\r":
+        return "\\r";
+      case "\n":
+        return "\\n";
+      case "\r\n":
+        return "\\r\\n";
+      default:
+        return data;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
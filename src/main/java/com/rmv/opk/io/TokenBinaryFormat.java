@@ -0,0 +1,79 @@
+package com.rmv.opk.io;
+
+import com.rmv.opk.constants.TokenType;
+
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.Set;
+
+final class TokenBinaryFormat {
+  static final int MAGIC = 0x43534C54;
+  static final int VERSION = 1;
+
+  static final int FLAG_OFFSETS = 1;
+
+  static final int LITERAL = 0;
+  static final int NEW_SYMBOL = 1;
+  static final int FIRST_SYMBOL_REFERENCE = 2;
+
+  static final int MAX_SYMBOL_LENGTH = 64;
+  static final int MAX_SYMBOLS = 1 << 20;
+
+  static final Set<TokenType> SYMBOL_TYPES =
+      EnumSet.of(
+          TokenType.IDENTIFIER,
+          TokenType.KEYWORD,
+          TokenType.BOOLEAN,
+          TokenType.NULL,
+          TokenType.OPERATOR,
+          TokenType.SEPARATOR,
+          TokenType.WHITESPACE);
+
+  private TokenBinaryFormat() {}
+
+  static byte[] encode(String value) {
+    int byteLength = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char character = value.charAt(i);
+      byteLength += character < 0x80 ? 1 : character < 0x800 ? 2 : 3;
+    }
+    byte[] bytes = new byte[byteLength];
+    int position = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char character = value.charAt(i);
+      if (character < 0x80) {
+        bytes[position++] = (byte) character;
+      } else if (character < 0x800) {
+        bytes[position++] = (byte) (0xC0 | character >> 6);
+        bytes[position++] = (byte) (0x80 | character & 0x3F);
+      } else {
+        bytes[position++] = (byte) (0xE0 | character >> 12);
+        bytes[position++] = (byte) (0x80 | character >> 6 & 0x3F);
+        bytes[position++] = (byte) (0x80 | character & 0x3F);
+      }
+    }
+    return bytes;
+  }
+
+  static String decode(ByteBuffer buffer, int position, int byteLength) {
+    char[] chars = new char[byteLength];
+    int length = 0;
+    int end = position + byteLength;
+    while (position < end) {
+      int first = buffer.get(position++) & 0xFF;
+      int continuation = first < 0x80 ? 0 : first < 0xE0 ? 1 : 2;
+      if (end - position < continuation) {
+        throw new IllegalStateException("Corrupted token stream: truncated character");
+      }
+      if (continuation == 0) {
+        chars[length++] = (char) first;
+      } else if (continuation == 1) {
+        chars[length++] = (char) ((first & 0x1F) << 6 | buffer.get(position++) & 0x3F);
+      } else {
+        int second = buffer.get(position++) & 0x3F;
+        chars[length++] = (char) ((first & 0x0F) << 12 | second << 6 | buffer.get(position++) & 0x3F);
+      }
+    }
+    return new String(chars, 0, length);
+  }
+}
@@ -0,0 +1,30 @@
+package com.rmv.opk.io;
+
+import com.rmv.opk.TokenSpanSink;
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.entity.TokenSpan;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+public interface TokenWriter extends Closeable, Flushable {
+  void write(Token token) throws IOException;
+
+  default void writeAll(Iterable<Token> tokens) throws IOException {
+    for (Token token : tokens) {
+      write(token);
+    }
+  }
+
+  default TokenSpanSink asSpanSink(CharSequence source) {
+    return (type, start, length) -> {
+      try {
+        write(new Token(type, TokenSpan.materialize(type, source, start, length)));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+}
@@ -0,0 +1,151 @@
+package com.rmv.opk.metrics;
+
+import com.rmv.opk.LexerListener;
+import com.rmv.opk.constants.State;
+import com.rmv.opk.constants.TokenType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LexerMetrics implements LexerListener, LexerMetricsMXBean {
+  private static final TokenType[] TOKEN_TYPES = TokenType.values();
+  private static final State[] STATES = State.values();
+
+  private final LongAdder characters = new LongAdder();
+  private final LongAdder sources = new LongAdder();
+  private final LongAdder totalLexingNanos = new LongAdder();
+  private final LongAccumulator maxLexingNanos = new LongAccumulator(Math::max, 0);
+  private final LongAccumulator longestToken = new LongAccumulator(Math::max, 0);
+  private final LongAdder[] tokensByType = newAdders(TOKEN_TYPES.length);
+  private final LongAdder[] transitionsByState = newAdders(STATES.length);
+
+  @Override
+  public void onStateTransition(State from, State to) {
+    transitionsByState[to.ordinal()].increment();
+  }
+
+  @Override
+  public void onToken(TokenType type, int length) {
+    tokensByType[type.ordinal()].increment();
+    longestToken.accumulate(length);
+  }
+
+  @Override
+  public void onFinish(long characters, long elapsedNanos) {
+    this.characters.add(characters);
+    sources.increment();
+    totalLexingNanos.add(elapsedNanos);
+    maxLexingNanos.accumulate(elapsedNanos);
+  }
+
+  @Override
+  public long getCharacters() {
+    return characters.sum();
+  }
+
+  @Override
+  public long getTokens() {
+    long tokens = 0;
+    for (LongAdder adder : tokensByType) {
+      tokens += adder.sum();
+    }
+    return tokens;
+  }
+
+  @Override
+  public long getErrors() {
+    return tokensByType[TokenType.ERROR.ordinal()].sum();
+  }
+
+  @Override
+  public long getSources() {
+    return sources.sum();
+  }
+
+  @Override
+  public long getTotalLexingNanos() {
+    return totalLexingNanos.sum();
+  }
+
+  @Override
+  public long getMaxLexingNanos() {
+    return maxLexingNanos.get();
+  }
+
+  @Override
+  public long getLongestToken() {
+    return longestToken.get();
+  }
+
+  @Override
+  public Map<String, Long> getTokensByType() {
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (TokenType type : TOKEN_TYPES) {
+      result.put(type.name(), tokensByType[type.ordinal()].sum());
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, Long> getTransitionsByState() {
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (State state : STATES) {
+      result.put(state.name(), transitionsByState[state.ordinal()].sum());
+    }
+    return result;
+  }
+
+  @Override
+  public void reset() {
+    characters.reset();
+    sources.reset();
+    totalLexingNanos.reset();
+    maxLexingNanos.reset();
+    longestToken.reset();
+    for (LongAdder adder : tokensByType) {
+      adder.reset();
+    }
+    for (LongAdder adder : transitionsByState) {
+      adder.reset();
+    }
+  }
+
+  public ObjectName register(String name) throws JMException {
+    ObjectName objectName = new ObjectName("com.rmv.opk:type=LexerMetrics,name=" + name);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    server.registerMBean(this, objectName);
+    return objectName;
+  }
+
+  @Override
+  public String toString() {
+    return "characters="
+        + getCharacters()
+        + ", tokens="
+        + getTokens()
+        + ", errors="
+        + getErrors()
+        + ", sources="
+        + getSources()
+        + ", totalLexingMs="
+        + getTotalLexingNanos() / 1_000_000
+        + ", longestToken="
+        + getLongestToken()
+        + ", byType="
+        + getTokensByType();
+  }
+
+  private static LongAdder[] newAdders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+}
@@ -0,0 +1,25 @@
+package com.rmv.opk.metrics;
+
+import java.util.Map;
+
+public interface LexerMetricsMXBean {
+  long getCharacters();
+
+  long getTokens();
+
+  long getErrors();
+
+  long getSources();
+
+  long getTotalLexingNanos();
+
+  long getMaxLexingNanos();
+
+  long getLongestToken();
+
+  Map<String, Long> getTokensByType();
+
+  Map<String, Long> getTransitionsByState();
+
+  void reset();
+}
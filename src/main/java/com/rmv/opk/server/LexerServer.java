@@ -0,0 +1,250 @@
+package com.rmv.opk.server;
+
+import com.rmv.opk.Lexer;
+import com.rmv.opk.LexerPool;
+import com.rmv.opk.TokenSpanSink;
+import com.rmv.opk.batch.BatchLexer.ExecutionMode;
+import com.rmv.opk.io.OutputFormat;
+import com.rmv.opk.io.SourceFiles;
+import com.rmv.opk.io.TokenWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Builder
+public class LexerServer {
+  private static final String DOCUMENT_LENGTHS_HEADER = "X-Document-Lengths";
+
+  @Builder.Default private final int port = 0;
+  @Builder.Default private final int workers = Runtime.getRuntime().availableProcessors();
+  @Builder.Default private final ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+  @Builder.Default private final Charset charset = StandardCharsets.UTF_8;
+  @Builder.Default private final int maxRequestBytes = 64 << 20;
+  @Builder.Default private final int maxTokenLength = 1 << 20;
+  private final ServerStatistics statistics = new ServerStatistics();
+  private final AtomicReference<Running> running = new AtomicReference<>();
+
+  public InetSocketAddress start() throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    Running instance =
+        new Running(server, executionMode.newExecutor(workers), new LexerPool(workers));
+    if (!running.compareAndSet(null, instance)) {
+      instance.executor.shutdown();
+      throw new IllegalStateException("Server is already running");
+    }
+    server.createContext("/lex", exchange -> handleLex(exchange, instance.lexerPool));
+    server.createContext("/stats", this::handleStats);
+    server.setExecutor(instance::execute);
+    statistics.recordStart();
+    server.start();
+    return server.getAddress();
+  }
+
+  public void stop() {
+    Running instance = running.getAndSet(null);
+    if (instance != null) {
+      instance.server.stop(0);
+      instance.executor.shutdown();
+    }
+  }
+
+  public ServerStatistics getStatistics() {
+    return statistics;
+  }
+
+  private void handleLex(HttpExchange exchange, LexerPool lexerPool) throws IOException {
+    boolean failed = true;
+    try (exchange) {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        sendError(exchange, 405, "Use POST");
+        return;
+      }
+      OutputFormat format = parseFormat(exchange.getRequestURI().getRawQuery());
+      if (format == null) {
+        sendError(exchange, 400, "Unsupported format, expected jsonl or binary");
+        return;
+      }
+      byte[] body = readBody(exchange.getRequestBody());
+      if (body == null) {
+        sendError(exchange, 413, "Request exceeds " + maxRequestBytes + " bytes");
+        return;
+      }
+      int[] lengths =
+          parseDocumentLengths(
+              exchange.getRequestHeaders().getFirst(DOCUMENT_LENGTHS_HEADER), body.length);
+      if (lengths == null) {
+        sendError(
+            exchange, 400, DOCUMENT_LENGTHS_HEADER + " must list lengths summing to the body size");
+        return;
+      }
+      String contentType =
+          format == OutputFormat.BINARY ? "application/octet-stream" : "application/x-ndjson";
+      exchange.getResponseHeaders().set("Content-Type", contentType);
+      exchange.sendResponseHeaders(200, 0);
+      Lexer lexer = lexerPool.acquire();
+      lexer.setMaxTokenLength(maxTokenLength);
+      try {
+        writeDocuments(lexer, body, lengths, format, exchange.getResponseBody());
+      } finally {
+        lexerPool.release(lexer);
+      }
+      failed = false;
+    } finally {
+      statistics.recordRequest(failed);
+    }
+  }
+
+  private void writeDocuments(
+      Lexer lexer, byte[] body, int[] lengths, OutputFormat format, OutputStream output)
+      throws IOException {
+    if (lengths.length == 0) {
+      try (TokenWriter writer = format.open(output, charset)) {
+        lexDocument(lexer, ByteBuffer.wrap(body), writer);
+      }
+      return;
+    }
+    DataOutputStream data = new DataOutputStream(output);
+    int offset = 0;
+    for (int document = 0; document < lengths.length; document++) {
+      ByteBuffer bytes = ByteBuffer.wrap(body, offset, lengths[document]);
+      offset += lengths[document];
+      if (format == OutputFormat.BINARY) {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (TokenWriter writer = format.open(encoded, charset)) {
+          lexDocument(lexer, bytes, writer);
+        }
+        data.writeInt(encoded.size());
+        encoded.writeTo(data);
+      } else {
+        data.write(("{\"document\":" + document + "}\n").getBytes(StandardCharsets.UTF_8));
+        TokenWriter writer = format.open(data, charset);
+        lexDocument(lexer, bytes, writer);
+        writer.flush();
+      }
+    }
+    data.close();
+  }
+
+  private void lexDocument(Lexer lexer, ByteBuffer bytes, TokenWriter writer) throws IOException {
+    long start = System.nanoTime();
+    CharBuffer source = SourceFiles.decode(bytes, charset);
+    TokenSpanSink sink = writer.asSpanSink(source);
+    long[] tokens = new long[1];
+    try {
+      lexer.getTokenSpans(
+          source,
+          (type, tokenStart, length) -> {
+            tokens[0]++;
+            sink.accept(type, tokenStart, length);
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    statistics.recordDocument(source.remaining(), tokens[0], System.nanoTime() - start);
+  }
+
+  private void handleStats(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      byte[] response = statistics.toJson().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, response.length);
+      exchange.getResponseBody().write(response);
+    }
+  }
+
+  private byte[] readBody(InputStream input) throws IOException {
+    byte[] body = input.readNBytes(maxRequestBytes + 1);
+    return body.length > maxRequestBytes ? null : body;
+  }
+
+  private static OutputFormat parseFormat(String query) {
+    String format = "jsonl";
+    if (query != null) {
+      for (String parameter : query.split("&")) {
+        if (parameter.startsWith("format=")) {
+          format = parameter.substring("format=".length());
+        }
+      }
+    }
+    switch (format) {
+      case "jsonl":
+        return OutputFormat.JSON_LINES;
+      case "binary":
+        return OutputFormat.BINARY;
+      default:
+        return null;
+    }
+  }
+
+  private static int[] parseDocumentLengths(String header, int bodyLength) {
+    if (header == null) {
+      return new int[0];
+    }
+    String[] parts = header.split(",");
+    int[] lengths = new int[parts.length];
+    long total = 0;
+    try {
+      for (int i = 0; i < parts.length; i++) {
+        lengths[i] = Integer.parseInt(parts[i].trim());
+        if (lengths[i] < 0) {
+          return null;
+        }
+        total += lengths[i];
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    return total == bodyLength ? lengths : null;
+  }
+
+  private static void sendError(HttpExchange exchange, int status, String message)
+      throws IOException {
+    byte[] response = (message + "\n").getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(status, response.length);
+    exchange.getResponseBody().write(response);
+  }
+
+  private class Running implements Executor {
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LexerPool lexerPool;
+
+    private Running(HttpServer server, ExecutorService executor, LexerPool lexerPool) {
+      this.server = server;
+      this.executor = executor;
+      this.lexerPool = lexerPool;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+      statistics.recordQueued();
+      executor.execute(
+          () -> {
+            statistics.recordDequeued();
+            try {
+              task.run();
+            } finally {
+              statistics.recordFinished();
+            }
+          });
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.rmv.opk.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ServerStatistics {
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder failedRequests = new LongAdder();
+  private final LongAdder documents = new LongAdder();
+  private final LongAdder characters = new LongAdder();
+  private final LongAdder tokens = new LongAdder();
+  private final LongAdder lexingNanos = new LongAdder();
+  private final AtomicInteger queuedRequests = new AtomicInteger();
+  private final AtomicInteger activeRequests = new AtomicInteger();
+  private volatile long startNanos = System.nanoTime();
+
+  void recordStart() {
+    startNanos = System.nanoTime();
+  }
+
+  void recordQueued() {
+    queuedRequests.incrementAndGet();
+  }
+
+  void recordDequeued() {
+    queuedRequests.decrementAndGet();
+    activeRequests.incrementAndGet();
+  }
+
+  void recordFinished() {
+    activeRequests.decrementAndGet();
+  }
+
+  void recordRequest(boolean failed) {
+    requests.increment();
+    if (failed) {
+      failedRequests.increment();
+    }
+  }
+
+  void recordDocument(long documentCharacters, long documentTokens, long nanos) {
+    documents.increment();
+    characters.add(documentCharacters);
+    tokens.add(documentTokens);
+    lexingNanos.add(nanos);
+  }
+
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  public long getFailedRequests() {
+    return failedRequests.sum();
+  }
+
+  public long getDocuments() {
+    return documents.sum();
+  }
+
+  public long getCharacters() {
+    return characters.sum();
+  }
+
+  public long getTokens() {
+    return tokens.sum();
+  }
+
+  public int getQueuedRequests() {
+    return queuedRequests.get();
+  }
+
+  public int getActiveRequests() {
+    return activeRequests.get();
+  }
+
+  public long getLexingTime(TimeUnit unit) {
+    return unit.convert(lexingNanos.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  public long getUptime(TimeUnit unit) {
+    return unit.convert(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public double getCharactersPerSecond() {
+    long uptimeNanos = Math.max(1, System.nanoTime() - startNanos);
+    return getCharacters() * 1e9 / uptimeNanos;
+  }
+
+  public double getTokensPerSecond() {
+    long uptimeNanos = Math.max(1, System.nanoTime() - startNanos);
+    return getTokens() * 1e9 / uptimeNanos;
+  }
+
+  public String toJson() {
+    return "{\"requests\":" + getRequests()
+        + ",\"failedRequests\":" + getFailedRequests()
+        + ",\"documents\":" + getDocuments()
+        + ",\"characters\":" + getCharacters()
+        + ",\"tokens\":" + getTokens()
+        + ",\"queuedRequests\":" + getQueuedRequests()
+        + ",\"activeRequests\":" + getActiveRequests()
+        + ",\"lexingMs\":" + getLexingTime(TimeUnit.MILLISECONDS)
+        + ",\"uptimeMs\":" + getUptime(TimeUnit.MILLISECONDS)
+        + ",\"charactersPerSecond\":" + Math.round(getCharactersPerSecond())
+        + ",\"tokensPerSecond\":" + Math.round(getTokensPerSecond())
+        + "}";
+  }
+
+  @Override
+  public String toString() {
+    return "requests=" + getRequests()
+        + ", failed=" + getFailedRequests()
+        + ", documents=" + getDocuments()
+        + ", characters=" + getCharacters()
+        + ", tokens=" + getTokens()
+        + ", queued=" + getQueuedRequests()
+        + ", active=" + getActiveRequests()
+        + ", lexingMs=" + getLexingTime(TimeUnit.MILLISECONDS);
+  }
+}
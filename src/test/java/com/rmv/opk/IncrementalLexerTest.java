@@ -0,0 +1,62 @@
+package com.rmv.opk;
+
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.entity.TokenChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.rmv.opk.TestSources.describe;
+import static com.rmv.opk.TestSources.randomSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalLexerTest {
+  @Test
+  void matchesFullRelex() {
+    Random random = new Random(9);
+    for (int document = 0; document < 200; document++) {
+      StringBuilder text = new StringBuilder(randomSource(random, 1 + random.nextInt(300)));
+      IncrementalLexer incrementalLexer = new IncrementalLexer(text);
+      for (int edit = 0; edit < 20; edit++) {
+        int offset = random.nextInt(text.length() + 1);
+        int removed = random.nextInt(Math.min(5, text.length() - offset) + 1);
+        String inserted = randomSource(random, random.nextInt(4));
+        List<Token> before = new ArrayList<>(incrementalLexer.getTokens());
+        TokenChange change = incrementalLexer.applyEdit(offset, removed, inserted);
+        text.replace(offset, offset + removed, inserted);
+
+        List<String> expected = describe(new Lexer().getTokens(text.toString()));
+        assertEquals(text.toString(), incrementalLexer.getText());
+        assertEquals(expected, describe(incrementalLexer.getTokens()), text.toString());
+        int first = change.getFirstTokenIndex();
+        before.subList(first, first + change.getRemovedTokenCount()).clear();
+        before.addAll(first, change.getInsertedTokens());
+        assertEquals(expected, describe(before), text.toString());
+      }
+    }
+  }
+
+  @Test
+  void relexesOnlyAroundTheEdit() {
+    IncrementalLexer incrementalLexer =
+        new IncrementalLexer("int a = 1;\nint b = 2;\nint c = 3;\n");
+    TokenChange change = incrementalLexer.applyEdit(15, 1, "bb");
+
+    assertEquals("int a = 1;\nint bb = 2;\nint c = 3;\n", incrementalLexer.getText());
+    List<String> inserted = describe(change.getInsertedTokens());
+    assertTrue(inserted.contains("IDENTIFIER|bb"), inserted.toString());
+    assertFalse(inserted.contains("IDENTIFIER|c"), inserted.toString());
+  }
+
+  @Test
+  void rejectsEditsOutsideTheText() {
+    IncrementalLexer incrementalLexer = new IncrementalLexer("int a;");
+    assertThrows(IndexOutOfBoundsException.class, () -> incrementalLexer.applyEdit(-1, 0, "x"));
+    assertThrows(IndexOutOfBoundsException.class, () -> incrementalLexer.applyEdit(5, 2, "x"));
+  }
+}
@@ -0,0 +1,60 @@
+package com.rmv.opk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static com.rmv.opk.TestSources.corpus;
+import static com.rmv.opk.TestSources.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LexerInputTest {
+  @Test
+  void inputPathsMatchStringInput() throws IOException {
+    for (String source : corpus()) {
+      List<String> expected = describe(new Lexer().getTokens(source));
+      assertEquals(expected, describe(new Lexer().getTokens(new StringReader(source))), source);
+      assertEquals(expected, describe(new Lexer().getTokens(source.toCharArray())), source);
+      assertEquals(
+          expected, describe(new Lexer().getTokens(new StringBuilder(source))), source);
+    }
+  }
+
+  @Test
+  void bulkScannedTokensSurviveShortReads() throws IOException {
+    String source =
+        "// " + "c".repeat(5000) + "\n"
+            + "string s = \"" + "s".repeat(5000) + "\\\"x\";\n"
+            + "var " + "i".repeat(5000) + "_1 = 0;\n"
+            + "/* " + "m".repeat(5000);
+    List<String> expected = describe(new Lexer().getTokens(source));
+
+    assertEquals(expected, describe(new Lexer().getTokens(new OneCharReader(source))));
+    assertEquals(expected, describe(new Lexer().getTokens(source.toCharArray())));
+  }
+
+  @Test
+  void shortReadsMatchStringInput() throws IOException {
+    for (String source : corpus()) {
+      assertEquals(
+          describe(new Lexer().getTokens(source)),
+          describe(new Lexer().getTokens(new OneCharReader(source))),
+          source);
+    }
+  }
+
+  private static class OneCharReader extends FilterReader {
+    private OneCharReader(String source) {
+      super(new StringReader(source));
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      return super.read(buffer, offset, Math.min(length, 1));
+    }
+  }
+}
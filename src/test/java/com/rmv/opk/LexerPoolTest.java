@@ -0,0 +1,110 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.rmv.opk.TestSources.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LexerPoolTest {
+  private static final String SOURCE =
+      "#if DEBUG\nint a;\n#endif\nstring s = \"abcdefghijklmnop\";\n";
+
+  @Test
+  void releasedLexerBehavesLikeAFreshOne() throws IOException {
+    LexerPool pool = new LexerPool(1);
+    Lexer lexer = pool.acquire();
+    lexer.setListener(
+        new LexerListener() {
+          @Override
+          public void onToken(TokenType type, int length) {
+            throw new IllegalStateException("listener failure");
+          }
+        });
+    lexer.setSkippedTypes(EnumSet.of(TokenType.WHITESPACE));
+    lexer.setCoalesceWhitespace(true);
+    lexer.setLineTracking(true);
+    lexer.setMaxTokenLength(4);
+    lexer.setPreprocessorSymbols(Set.of());
+    assertThrows(IllegalStateException.class, () -> lexer.getTokens(SOURCE));
+    pool.release(lexer);
+
+    Lexer reused = pool.acquire();
+    assertSame(lexer, reused);
+    assertEquals(Integer.MAX_VALUE, reused.getMaxTokenLength());
+    assertEquals(describe(new Lexer().getTokens(SOURCE)), describe(reused.getTokens(SOURCE)));
+    assertNull(reused.getLineMap());
+  }
+
+  @Test
+  void abandonedStreamDoesNotLeakIntoTheNextRun() throws IOException {
+    String source = Files.readString(Path.of("csharp.cs"));
+    LexerPool pool = new LexerPool(1);
+    Lexer lexer = pool.acquire();
+    TokenStream tokens = lexer.tokenStream(new StringReader(source));
+    for (int i = 0; i < 10; i++) {
+      tokens.next();
+    }
+    pool.release(lexer);
+
+    assertEquals(
+        describe(new Lexer().getTokens(source)),
+        pool.withLexer(reused -> describe(reused.getTokens(source))));
+  }
+
+  @Test
+  void keepsAtMostMaxIdleLexers() {
+    LexerPool pool = new LexerPool(2);
+    Lexer first = pool.acquire();
+    Lexer second = pool.acquire();
+    Lexer third = pool.acquire();
+    pool.release(first);
+    pool.release(second);
+    pool.release(third);
+
+    assertEquals(2, pool.idleCount());
+    assertSame(first, pool.acquire());
+    assertEquals(1, pool.idleCount());
+  }
+
+  @Test
+  void withLexerReturnsTheLexerToThePool() {
+    LexerPool pool = new LexerPool(1);
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            pool.withLexer(
+                lexer -> {
+                  throw new IllegalStateException();
+                }));
+
+    assertEquals(1, pool.idleCount());
+    assertEquals(
+        describe(new Lexer().getTokens(SOURCE)),
+        pool.withLexer(lexer -> describe(lexer.getTokens(SOURCE))));
+  }
+
+  @Test
+  void sharesTheSymbolTable() {
+    LexerPool pool = new LexerPool(2, new SymbolTable());
+    String first = pool.acquire().getTokens("value").get(0).getData();
+    String second = pool.acquire().getTokens("value").get(0).getData();
+
+    assertSame(first, second);
+  }
+
+  @Test
+  void rejectsNonPositiveSize() {
+    assertThrows(IllegalArgumentException.class, () -> new LexerPool(0));
+  }
+}
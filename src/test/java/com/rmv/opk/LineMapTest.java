@@ -0,0 +1,91 @@
+package com.rmv.opk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.rmv.opk.TestSources.corpus;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LineMapTest {
+  @Test
+  void mapsOffsetsToLinesAndColumns() {
+    LineMap lineMap = LineMap.of("ab\ncd\r\n\nx");
+
+    assertEquals(4, lineMap.getLineCount());
+    assertEquals(List.of(0, 3, 7, 8), lineStarts(lineMap));
+    assertEquals(1, lineMap.getLine(0));
+    assertEquals(1, lineMap.getLine(2));
+    assertEquals(2, lineMap.getLine(3));
+    assertEquals(2, lineMap.getLine(6));
+    assertEquals(3, lineMap.getLine(7));
+    assertEquals(4, lineMap.getLine(8));
+    assertEquals(4, lineMap.getLine(100));
+    assertEquals(1, lineMap.getColumn(0));
+    assertEquals(3, lineMap.getColumn(2));
+    assertEquals(4, lineMap.getColumn(6));
+    assertEquals(1, lineMap.getColumn(8));
+  }
+
+  @Test
+  void rejectsOutOfRangeLookups() {
+    LineMap lineMap = LineMap.of("a\nb");
+
+    assertThrows(IndexOutOfBoundsException.class, () -> lineMap.getLineStart(0));
+    assertThrows(IndexOutOfBoundsException.class, () -> lineMap.getLineStart(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> lineMap.getLine(-1));
+    assertThrows(IndexOutOfBoundsException.class, () -> lineMap.getColumn(-1));
+  }
+
+  @Test
+  void lexerTracksTheSameLinesAsTheSource() throws IOException {
+    for (String source : corpus()) {
+      List<Integer> expected = lineStarts(LineMap.of(source));
+
+      Lexer lexer = new Lexer();
+      lexer.setLineTracking(true);
+      lexer.getTokens(source);
+      assertEquals(expected, lineStarts(lexer.getLineMap()), source);
+      lexer.getTokens(new StringReader(source));
+      assertEquals(expected, lineStarts(lexer.getLineMap()), source);
+      lexer.getTokens(source.toCharArray());
+      assertEquals(expected, lineStarts(lexer.getLineMap()), source);
+    }
+  }
+
+  @Test
+  void utf8LexerTracksLinesInByteOffsets() throws IOException {
+    for (String source : corpus()) {
+      byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+      String latin1 = new String(bytes, StandardCharsets.ISO_8859_1);
+
+      Lexer lexer = new Lexer();
+      lexer.setLineTracking(true);
+      Utf8Lexer utf8Lexer = new Utf8Lexer(lexer);
+      utf8Lexer.getTokens(bytes);
+      assertEquals(lineStarts(LineMap.of(latin1)), lineStarts(utf8Lexer.getLineMap()), source);
+    }
+  }
+
+  @Test
+  void lineTrackingIsOffByDefault() {
+    Lexer lexer = new Lexer();
+    lexer.getTokens("a\nb");
+
+    assertNull(lexer.getLineMap());
+  }
+
+  private static List<Integer> lineStarts(LineMap lineMap) {
+    List<Integer> lineStarts = new ArrayList<>();
+    for (int line = 1; line <= lineMap.getLineCount(); line++) {
+      lineStarts.add(lineMap.getLineStart(line));
+    }
+    return lineStarts;
+  }
+}
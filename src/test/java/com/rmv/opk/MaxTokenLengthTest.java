@@ -0,0 +1,102 @@
+package com.rmv.opk;
+
+import com.rmv.opk.entity.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.rmv.opk.TestSources.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MaxTokenLengthTest {
+  @Test
+  void replacesOversizedTokensWithTruncatedErrors() {
+    Lexer lexer = new Lexer();
+    lexer.setMaxTokenLength(8);
+
+    assertEquals(
+        List.of(
+            "IDENTIFIER|x", "WHITESPACE| ", "OPERATOR|=", "WHITESPACE| ", "ERROR|abcdefgh",
+            "SEPARATOR|;", "WHITESPACE| "),
+        describe(lexer.getTokens("x = abcdefghijklmnop;")));
+  }
+
+  @Test
+  void spansCoverTheWholeOversizedToken() {
+    Lexer lexer = new Lexer();
+    lexer.setMaxTokenLength(8);
+    String source = "x = abcdefghijklmnop;";
+
+    assertEquals(
+        List.of(
+            "IDENTIFIER|x", "WHITESPACE| ", "OPERATOR|=", "WHITESPACE| ",
+            "ERROR|abcdefghijklmnop", "SEPARATOR|;"),
+        spans(lexer, source));
+  }
+
+  @Test
+  void reportsOversizedUnterminatedTokensAtEndOfInput() {
+    String source = "s = \"" + "a".repeat(5000);
+    assertEquals(
+        List.of("IDENTIFIER|s", "WHITESPACE| ", "OPERATOR|=", "WHITESPACE| "),
+        describe(new Lexer().getTokens(source)));
+
+    Lexer lexer = new Lexer();
+    lexer.setMaxTokenLength(8);
+    assertEquals(
+        List.of("IDENTIFIER|s", "WHITESPACE| ", "OPERATOR|=", "WHITESPACE| ", "ERROR|\"aaaaaaa"),
+        describe(lexer.getTokens(source)));
+    assertEquals("ERROR|\"" + "a".repeat(5000), spans(lexer, source).get(4));
+  }
+
+  @Test
+  void boundsHugeTokensOnEveryInputPath() throws IOException {
+    String source = "int " + "x".repeat(100_000) + " = 1;";
+    List<String> expected =
+        List.of(
+            "KEYWORD|int", "WHITESPACE| ", "ERROR|" + "x".repeat(16), "WHITESPACE| ",
+            "OPERATOR|=", "WHITESPACE| ", "INT|1", "SEPARATOR|;", "WHITESPACE| ");
+
+    Lexer lexer = new Lexer();
+    lexer.setMaxTokenLength(16);
+    assertEquals(expected, describe(lexer.getTokens(source)));
+    assertEquals(expected, describe(lexer.getTokens(source.toCharArray())));
+    assertEquals(expected, describe(lexer.getTokens(new StringReader(source))));
+  }
+
+  @Test
+  void leavesTokensWithinTheLimitUnchanged() throws IOException {
+    String source = Files.readString(Path.of("csharp.cs"));
+    List<Token> tokens = new Lexer().getTokens(source);
+    int longest = 0;
+    for (Token token : tokens) {
+      longest = Math.max(longest, token.getData().length());
+    }
+
+    Lexer lexer = new Lexer();
+    lexer.setMaxTokenLength(longest);
+    assertEquals(describe(tokens), describe(lexer.getTokens(source)));
+  }
+
+  @Test
+  void rejectsNonPositiveLimits() {
+    Lexer lexer = new Lexer();
+    assertThrows(IllegalArgumentException.class, () -> lexer.setMaxTokenLength(0));
+    assertThrows(IllegalArgumentException.class, () -> lexer.setMaxTokenLength(-1));
+    assertEquals(Integer.MAX_VALUE, lexer.getMaxTokenLength());
+  }
+
+  private static List<String> spans(Lexer lexer, String source) {
+    List<String> spans = new ArrayList<>();
+    lexer.getTokenSpans(
+        source,
+        (type, start, length) -> spans.add(type + "|" + source.substring(start, start + length)));
+    return spans;
+  }
+}
@@ -0,0 +1,44 @@
+package com.rmv.opk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.rmv.opk.TestSources.corpus;
+import static com.rmv.opk.TestSources.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelLexerTest {
+  @Test
+  void matchesSequentialLexer() throws IOException {
+    for (int chunkSize : new int[] {7, 64, 4096}) {
+      ParallelLexer parallelLexer = new ParallelLexer(ForkJoinPool.commonPool(), chunkSize);
+      for (String source : corpus()) {
+        assertEquals(
+            describe(new Lexer().getTokens(source)),
+            describe(parallelLexer.getTokens(source)),
+            source);
+      }
+    }
+  }
+
+  @Test
+  void lexesArrayRanges() throws IOException {
+    ParallelLexer parallelLexer = new ParallelLexer(ForkJoinPool.commonPool(), 64);
+    for (String source : corpus()) {
+      char[] chars = ("@@" + source + "@@").toCharArray();
+      assertEquals(
+          describe(new Lexer().getTokens(source)),
+          describe(parallelLexer.getTokens(chars, 2, chars.length - 2)),
+          source);
+    }
+  }
+
+  @Test
+  void rejectsNonPositiveChunkSize() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new ParallelLexer(ForkJoinPool.commonPool(), 0));
+  }
+}
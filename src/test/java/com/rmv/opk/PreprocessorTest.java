@@ -0,0 +1,121 @@
+package com.rmv.opk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+
+import static com.rmv.opk.TestSources.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PreprocessorTest {
+  private static final String CONDITIONAL = "#if DEBUG\na;\n#else\nb;\n#endif\nc;";
+
+  @Test
+  void skipsTheInactiveBranch() {
+    assertEquals(
+        List.of(
+            "PREPROCESSOR|#if DEBUG", "PREPROCESSOR|#else", "WHITESPACE|\n", "IDENTIFIER|b",
+            "SEPARATOR|;", "WHITESPACE|\n", "PREPROCESSOR|#endif", "WHITESPACE|\n",
+            "IDENTIFIER|c", "SEPARATOR|;", "WHITESPACE| "),
+        tokens(CONDITIONAL, Set.of()));
+    assertEquals(
+        List.of(
+            "PREPROCESSOR|#if DEBUG", "WHITESPACE|\n", "IDENTIFIER|a", "SEPARATOR|;",
+            "WHITESPACE|\n", "PREPROCESSOR|#else", "PREPROCESSOR|#endif", "WHITESPACE|\n",
+            "IDENTIFIER|c", "SEPARATOR|;", "WHITESPACE| "),
+        tokens(CONDITIONAL, Set.of("DEBUG")));
+  }
+
+  @Test
+  void definesAndUndefinesSymbols() {
+    String source =
+        "#define X\n#if X && !Y\na;\n#elif Z\nb;\n#endif\n#undef X\n#if X\nc;\n#endif";
+
+    assertEquals(
+        List.of(
+            "PREPROCESSOR|#define X", "WHITESPACE|\n", "PREPROCESSOR|#if X && !Y",
+            "WHITESPACE|\n", "IDENTIFIER|a", "SEPARATOR|;", "WHITESPACE|\n",
+            "PREPROCESSOR|#elif Z", "PREPROCESSOR|#endif", "WHITESPACE|\n",
+            "PREPROCESSOR|#undef X", "WHITESPACE|\n", "PREPROCESSOR|#if X", "PREPROCESSOR|#endif",
+            "WHITESPACE| "),
+        tokens(source, Set.of()));
+  }
+
+  @Test
+  void ignoresDirectivesInsideInactiveRegions() {
+    String source = "#if A\n#if B\nx;\n#endif\n#define C\n#else\n#if C\ny;\n#endif\n#endif\n";
+
+    assertEquals(
+        List.of(
+            "PREPROCESSOR|#if A", "PREPROCESSOR|#else", "WHITESPACE|\n", "PREPROCESSOR|#if C",
+            "PREPROCESSOR|#endif", "WHITESPACE|\n", "PREPROCESSOR|#endif", "WHITESPACE|\n",
+            "WHITESPACE| "),
+        tokens(source, Set.of()));
+    assertEquals(
+        List.of(
+            "PREPROCESSOR|#if A", "WHITESPACE|\n", "PREPROCESSOR|#if B", "PREPROCESSOR|#endif",
+            "WHITESPACE|\n", "PREPROCESSOR|#define C", "WHITESPACE|\n", "PREPROCESSOR|#else",
+            "PREPROCESSOR|#endif", "WHITESPACE|\n", "WHITESPACE| "),
+        tokens(source, Set.of("A")));
+  }
+
+  @Test
+  void doesNotLexInactiveText() {
+    String source = "#if DEBUG\n\"unterminated\n/* comment\n#endif\nz;";
+
+    assertEquals(
+        List.of(
+            "PREPROCESSOR|#if DEBUG", "PREPROCESSOR|#endif", "WHITESPACE|\n", "IDENTIFIER|z",
+            "SEPARATOR|;", "WHITESPACE| "),
+        tokens(source, Set.of()));
+  }
+
+  @Test
+  void reportsInvalidDirectivesAsErrors() {
+    assertEquals(
+        List.of(
+            "ERROR|#bogus", "WHITESPACE|\n", "ERROR|#if (", "PREPROCESSOR|#endif",
+            "WHITESPACE|\n", "ERROR|#endif", "WHITESPACE|\n", "ERROR|#else x", "WHITESPACE| "),
+        tokens("#bogus\n#if (\na;\n#endif\n#endif\n#else x", Set.of()));
+  }
+
+  @Test
+  void symbolsDefinedInOneRunDoNotLeakIntoTheNext() {
+    Lexer lexer = new Lexer();
+    lexer.setPreprocessorSymbols(Set.of());
+    lexer.getTokens("#define DEBUG\n");
+
+    assertEquals(tokens(CONDITIONAL, Set.of()), describe(lexer.getTokens(CONDITIONAL)));
+  }
+
+  @Test
+  void inputPathsMatchStringInput() throws IOException {
+    String source = "#if A\n" + "int a = 1; // c\n".repeat(5000) + "#endif\nint b;\n";
+    for (Set<String> symbols : List.of(Set.<String>of(), Set.of("A"))) {
+      Lexer lexer = new Lexer();
+      lexer.setPreprocessorSymbols(symbols);
+      List<String> expected = describe(lexer.getTokens(source));
+      assertEquals(expected, describe(lexer.getTokens(source.toCharArray())));
+      assertEquals(expected, describe(lexer.getTokens(new StringReader(source))));
+    }
+  }
+
+  @Test
+  void nullSymbolsDisableThePreprocessor() {
+    Lexer lexer = new Lexer();
+    lexer.setPreprocessorSymbols(Set.of());
+    lexer.setPreprocessorSymbols(null);
+
+    assertEquals(
+        describe(new Lexer().getTokens(CONDITIONAL)), describe(lexer.getTokens(CONDITIONAL)));
+  }
+
+  private static List<String> tokens(String source, Set<String> symbols) {
+    Lexer lexer = new Lexer();
+    lexer.setPreprocessorSymbols(symbols);
+    return describe(lexer.getTokens(source));
+  }
+}
@@ -0,0 +1,119 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.TokenType;
+import com.rmv.opk.entity.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SymbolTableTest {
+  @Test
+  void internsEqualTextToTheSameInstance() {
+    SymbolTable symbolTable = new SymbolTable();
+    String first = symbolTable.intern(TokenType.IDENTIFIER, new StringBuilder("value"), 0, 5);
+    String second = symbolTable.intern(TokenType.IDENTIFIER, "value".toCharArray(), 0, 5);
+    String third = symbolTable.intern(TokenType.IDENTIFIER, new String("value"));
+
+    assertEquals("value", first);
+    assertSame(first, second);
+    assertSame(first, third);
+    assertEquals(1, symbolTable.size());
+  }
+
+  @Test
+  void skipsCommentsErrorsAndLongLiterals() {
+    SymbolTable symbolTable = new SymbolTable(64, 4);
+    String comment = "// note";
+    String longLiteral = "\"long\"";
+
+    assertNotSame(comment, symbolTable.intern(TokenType.COMMENT, new String(comment)));
+    assertNotSame(
+        symbolTable.intern(TokenType.STRING, new String(longLiteral)),
+        symbolTable.intern(TokenType.STRING, new String(longLiteral)));
+    assertSame(
+        symbolTable.intern(TokenType.STRING, new String("\"a\"")),
+        symbolTable.intern(TokenType.STRING, new String("\"a\"")));
+    assertEquals(1, symbolTable.size());
+  }
+
+  @Test
+  void stopsInterningWhenFull() {
+    SymbolTable symbolTable = new SymbolTable(16, 32);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("name" + i, symbolTable.intern(TokenType.IDENTIFIER, "name" + i));
+    }
+    assertEquals(16, symbolTable.size());
+  }
+
+  @Test
+  void symbolIdsResolveBackToSymbols() {
+    SymbolTable symbolTable = new SymbolTable();
+    int id = symbolTable.symbolId(TokenType.KEYWORD, "class");
+
+    assertEquals(id, symbolTable.symbolId(TokenType.KEYWORD, new StringBuilder("class")));
+    assertEquals("class", symbolTable.symbol(id));
+    assertEquals(SymbolTable.NO_SYMBOL, symbolTable.symbolId(TokenType.COMMENT, "// c"));
+    assertThrows(IllegalArgumentException.class, () -> symbolTable.symbol(-1));
+  }
+
+  @Test
+  void enginesSharingATableInternTheSameTokens() throws IOException {
+    SymbolTable symbolTable = new SymbolTable();
+    for (String file : new String[] {"csharp.cs", "csharp_corner_cases.cs"}) {
+      String source = Files.readString(Path.of(file)) + "\nstring s = \"a\"; x = \"\\\"q\\\"\"; y";
+      List<Token> lexerTokens = new Lexer(symbolTable).getTokens(source);
+      List<Token> tableTokens = new TableDrivenLexer(symbolTable).getTokens(source);
+
+      assertEquals(lexerTokens.size(), tableTokens.size());
+      for (int i = 0; i < lexerTokens.size(); i++) {
+        Token token = lexerTokens.get(i);
+        if (symbolTable.isInterned(token.getType(), token.getData().length())) {
+          assertSame(token.getData(), tableTokens.get(i).getData(), token.toString());
+        } else {
+          assertEquals(token.getData(), tableTokens.get(i).getData());
+        }
+      }
+    }
+  }
+
+  @Test
+  void concurrentInterningAgreesOnOneInstance() throws Exception {
+    SymbolTable symbolTable = new SymbolTable();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<String>>> results = new ArrayList<>();
+      for (int worker = 0; worker < 4; worker++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  List<String> symbols = new ArrayList<>();
+                  for (int i = 0; i < 2000; i++) {
+                    symbols.add(symbolTable.intern(TokenType.IDENTIFIER, "id" + i));
+                  }
+                  return symbols;
+                }));
+      }
+      List<String> first = results.get(0).get();
+      for (Future<List<String>> result : results) {
+        List<String> symbols = result.get();
+        for (int i = 0; i < symbols.size(); i++) {
+          assertSame(first.get(i), symbols.get(i));
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
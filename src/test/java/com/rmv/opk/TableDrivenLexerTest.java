@@ -0,0 +1,45 @@
+package com.rmv.opk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static com.rmv.opk.TestSources.corpus;
+import static com.rmv.opk.TestSources.describe;
+import static com.rmv.opk.TestSources.spans;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TableDrivenLexerTest {
+  @Test
+  void matchesLexer() throws IOException {
+    TableDrivenLexer tableDrivenLexer = new TableDrivenLexer();
+    for (String source : corpus()) {
+      List<String> expected = describe(new Lexer().getTokens(source));
+      assertEquals(expected, describe(tableDrivenLexer.getTokens(source)), source);
+      assertEquals(
+          expected, describe(tableDrivenLexer.getTokens(new StringReader(source))), source);
+      assertEquals(expected, describe(tableDrivenLexer.getTokens(source.toCharArray())), source);
+    }
+  }
+
+  @Test
+  void matchesLexerSpans() throws IOException {
+    TableDrivenLexer tableDrivenLexer = new TableDrivenLexer();
+    for (String source : corpus()) {
+      assertEquals(spans(new Lexer(), source), spans(tableDrivenLexer, source), source);
+    }
+  }
+
+  @Test
+  void matchesLexerSourceTokens() throws IOException {
+    TableDrivenLexer tableDrivenLexer = new TableDrivenLexer();
+    for (String source : corpus()) {
+      assertEquals(
+          describe(new Lexer().getSourceTokens(source)),
+          describe(tableDrivenLexer.getSourceTokens(source)),
+          source);
+    }
+  }
+}
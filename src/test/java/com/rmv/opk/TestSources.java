@@ -0,0 +1,64 @@
+package com.rmv.opk;
+
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.entity.TokenSpan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class TestSources {
+  private static final String ALPHABET =
+      "abcxyzfFlLbBxX_019825.\"'\\/*\n\r\t +-=<>&|!~?:^%#;,(){}[]@$"
+          + "\u00fc\u0663\u2028\u00a0\u0000\uD83D\uDE00\uD800";
+  private static final String[] WORDS = {
+    "null", "true", "false", "int", "class", "if", "ToString", "0x1F", "0b101", "1.5f", "3L",
+    "\"str\\\"x\"", "'a'", "'\\n'", "/* c */", "// x\n", ">>=", "<<", "&&", "||", "::", "..",
+    "...", "\r\n"
+  };
+
+  private TestSources() {}
+
+  static List<String> corpus() throws IOException {
+    List<String> sources = new ArrayList<>();
+    sources.add(Files.readString(Path.of("csharp.cs")));
+    sources.add(Files.readString(Path.of("csharp_corner_cases.cs")));
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      sources.add(randomSource(random, 1 + random.nextInt(300)));
+    }
+    return sources;
+  }
+
+  static String randomSource(Random random, int length) {
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      if (random.nextInt(4) == 0) {
+        source.append(WORDS[random.nextInt(WORDS.length)]);
+      } else {
+        source.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+    }
+    return source.toString();
+  }
+
+  static List<String> spans(Tokenizer tokenizer, String source) {
+    List<String> spans = new ArrayList<>();
+    tokenizer.getTokenSpans(
+        source,
+        (type, start, length) ->
+            spans.add(type + "|" + TokenSpan.materialize(type, source, start, length)));
+    return spans;
+  }
+
+  static List<String> describe(List<Token> tokens) {
+    List<String> result = new ArrayList<>();
+    for (Token token : tokens) {
+      result.add(token.getType() + "|" + token.getData());
+    }
+    return result;
+  }
+}
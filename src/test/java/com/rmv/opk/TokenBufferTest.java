@@ -0,0 +1,114 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.TokenType;
+import com.rmv.opk.entity.TokenSpan;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBufferTest {
+  @Test
+  void matchesTokenSpans() throws IOException {
+    String source = largeSource();
+    List<TokenSpan> spans = new Lexer().getTokenSpans(source);
+    TokenBuffer tokenBuffer = new Lexer().getTokenBuffer(source);
+
+    assertTrue(spans.size() > 4096);
+    assertEquals(spans.size(), tokenBuffer.size());
+    for (int i = 0; i < spans.size(); i++) {
+      TokenSpan span = spans.get(i);
+      assertEquals(span.getType(), tokenBuffer.getType(i));
+      assertEquals(span.getStart(), tokenBuffer.getStart(i));
+      assertEquals(span.getLength(), tokenBuffer.getLength(i));
+      assertEquals(span.getEnd(), tokenBuffer.getEnd(i));
+      assertEquals(span.getData(), tokenBuffer.getData(i));
+    }
+    List<String> iterated = new ArrayList<>();
+    for (TokenSpan span : tokenBuffer) {
+      iterated.add(span.getType() + "|" + span.getData());
+    }
+    List<String> visited = new ArrayList<>();
+    tokenBuffer.forEach(
+        (type, start, length) ->
+            visited.add(type + "|" + TokenSpan.materialize(type, source, start, length)));
+    assertEquals(describe(spans), iterated);
+    assertEquals(describe(spans), visited);
+  }
+
+  @Test
+  void filtersByType() throws IOException {
+    String source = largeSource();
+    TokenBuffer tokenBuffer = new Lexer().getTokenBuffer(source);
+    TokenBuffer.View view = tokenBuffer.filter(TokenType.IDENTIFIER, TokenType.KEYWORD);
+
+    List<String> expected = new ArrayList<>();
+    for (TokenSpan span : tokenBuffer) {
+      if (span.getType() == TokenType.IDENTIFIER || span.getType() == TokenType.KEYWORD) {
+        expected.add(span.getType() + "|" + span.getData());
+      }
+    }
+    List<String> filtered = new ArrayList<>();
+    for (int i = 0; i < view.size(); i++) {
+      assertEquals(view.getType(i), tokenBuffer.getType(view.indexOf(i)));
+      filtered.add(view.getType(i) + "|" + view.getData(i));
+    }
+    assertEquals(expected, filtered);
+    assertEquals(expected.size(), describe(iterate(view)).size());
+  }
+
+  @Test
+  void rejectsIndexesOutOfRange() {
+    TokenBuffer tokenBuffer = new Lexer().getTokenBuffer("int x;");
+    TokenBuffer.View view = tokenBuffer.filter(TokenType.COMMENT);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> tokenBuffer.getType(-1));
+    assertThrows(IndexOutOfBoundsException.class, () -> tokenBuffer.getStart(tokenBuffer.size()));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.indexOf(0));
+    assertThrows(NoSuchElementException.class, () -> view.iterator().next());
+  }
+
+  @Test
+  void clearAllowsReuse() {
+    TokenBuffer tokenBuffer = new TokenBuffer("a b");
+    tokenBuffer.accept(TokenType.IDENTIFIER, 0, 1);
+    tokenBuffer.clear();
+    assertEquals(0, tokenBuffer.size());
+    assertFalse(tokenBuffer.iterator().hasNext());
+
+    tokenBuffer.accept(TokenType.IDENTIFIER, 2, 1);
+    assertEquals("b", tokenBuffer.getData(0));
+  }
+
+  private static String largeSource() throws IOException {
+    String source = Files.readString(Path.of("csharp.cs"));
+    StringBuilder repeated = new StringBuilder();
+    while (repeated.length() < 100_000) {
+      repeated.append(source).append('\n');
+    }
+    return repeated.toString();
+  }
+
+  private static List<TokenSpan> iterate(Iterable<TokenSpan> spans) {
+    List<TokenSpan> result = new ArrayList<>();
+    spans.forEach(result::add);
+    return result;
+  }
+
+  private static List<String> describe(List<TokenSpan> spans) {
+    List<String> result = new ArrayList<>();
+    for (TokenSpan span : spans) {
+      result.add(span.getType() + "|" + span.getData());
+    }
+    return result;
+  }
+}
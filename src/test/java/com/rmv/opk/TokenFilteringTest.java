@@ -0,0 +1,53 @@
+package com.rmv.opk;
+
+import com.rmv.opk.constants.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.rmv.opk.TestSources.corpus;
+import static com.rmv.opk.TestSources.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenFilteringTest {
+  @Test
+  void skippedAndCoalescedWhitespaceMatchFilteredOutput() throws IOException {
+    for (String source : corpus()) {
+      List<String> all = describe(new Lexer().getTokens(source));
+      List<String> withoutWhitespace = new ArrayList<>();
+      List<String> merged = new ArrayList<>();
+      for (String token : all) {
+        boolean whitespace = token.startsWith(TokenType.WHITESPACE + "|");
+        if (!whitespace) {
+          withoutWhitespace.add(token);
+        }
+        int last = merged.size() - 1;
+        if (whitespace && last >= 0 && merged.get(last).startsWith(TokenType.WHITESPACE + "|")) {
+          merged.set(last, merged.get(last) + token.substring(token.indexOf('|') + 1));
+        } else {
+          merged.add(token);
+        }
+      }
+
+      Lexer skipping = new Lexer();
+      skipping.setSkippedTypes(EnumSet.of(TokenType.WHITESPACE));
+      assertEquals(withoutWhitespace, describe(skipping.getTokens(source)), source);
+      Lexer coalescing = new Lexer();
+      coalescing.setCoalesceWhitespace(true);
+      assertEquals(merged, describe(coalescing.getTokens(source)), source);
+    }
+  }
+
+  @Test
+  void skipsSeveralTypes() {
+    Lexer lexer = new Lexer();
+    lexer.setSkippedTypes(EnumSet.of(TokenType.WHITESPACE, TokenType.COMMENT));
+
+    assertEquals(
+        List.of("KEYWORD|int", "IDENTIFIER|a", "SEPARATOR|;"),
+        describe(lexer.getTokens("int // note\n a;")));
+  }
+}
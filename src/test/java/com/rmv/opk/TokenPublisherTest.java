@@ -0,0 +1,127 @@
+package com.rmv.opk;
+
+import com.rmv.opk.entity.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenPublisherTest {
+  private static final String SOURCE = "class A { int x = 42; string s = \"a\\\"b\"; }\n";
+  private static final Executor DIRECT = Runnable::run;
+
+  @Test
+  void deliversOnlyRequestedTokens() throws IOException {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    new TokenPublisher(new StringReader(SOURCE), DIRECT).subscribe(subscriber);
+    List<Token> expected = new Lexer().getTokens(new StringReader(SOURCE));
+
+    assertTrue(subscriber.tokens.isEmpty());
+    subscriber.subscription.request(3);
+    assertEquals(3, subscriber.tokens.size());
+    subscriber.subscription.request(2);
+    assertEquals(5, subscriber.tokens.size());
+    assertFalse(subscriber.completed);
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals(describe(expected), describe(subscriber.tokens));
+    assertTrue(subscriber.completed);
+  }
+
+  @Test
+  void nonPositiveRequestFailsTheSubscription() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    new TokenPublisher(new StringReader(SOURCE), DIRECT).subscribe(subscriber);
+    subscriber.subscription.request(0);
+    assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+    assertTrue(subscriber.tokens.isEmpty());
+  }
+
+  @Test
+  void rejectsSecondSubscriber() {
+    TokenPublisher publisher = new TokenPublisher(new StringReader(SOURCE), DIRECT);
+    publisher.subscribe(new RecordingSubscriber());
+    RecordingSubscriber second = new RecordingSubscriber();
+    publisher.subscribe(second);
+    assertInstanceOf(IllegalStateException.class, second.error);
+  }
+
+  @Test
+  void throwingSubscriberCancelsTheSubscription() {
+    ClosingReader reader = new ClosingReader(SOURCE);
+    RecordingSubscriber subscriber =
+        new RecordingSubscriber() {
+          @Override
+          public void onNext(Token item) {
+            super.onNext(item);
+            throw new IllegalStateException("boom");
+          }
+        };
+    new TokenPublisher(reader, DIRECT).subscribe(subscriber);
+
+    subscriber.subscription.request(5);
+    subscriber.subscription.request(5);
+    assertEquals(1, subscriber.tokens.size());
+    assertTrue(reader.closed);
+    assertFalse(subscriber.completed);
+    assertEquals(null, subscriber.error);
+  }
+
+  private static List<String> describe(List<Token> tokens) {
+    List<String> result = new ArrayList<>();
+    for (Token token : tokens) {
+      result.add(token.getType() + "|" + token.getData());
+    }
+    return result;
+  }
+
+  private static class RecordingSubscriber implements Flow.Subscriber<Token> {
+    private final List<Token> tokens = new ArrayList<>();
+    private Flow.Subscription subscription;
+    private Throwable error;
+    private boolean completed;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(Token item) {
+      tokens.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+
+  private static class ClosingReader extends StringReader {
+    private boolean closed;
+
+    private ClosingReader(String source) {
+      super(source);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      super.close();
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.rmv.opk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.rmv.opk.TestSources.corpus;
+import static com.rmv.opk.TestSources.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Utf8LexerTest {
+  @Test
+  void matchesDecodedInput() throws IOException {
+    for (String source : corpus()) {
+      byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+      List<String> expected =
+          describe(new Lexer().getTokens(new String(bytes, StandardCharsets.UTF_8)));
+      assertEquals(expected, describe(new Utf8Lexer().getTokens(bytes)), source);
+      assertEquals(expected, describe(new Utf8Lexer().getTokens(direct(bytes))), source);
+    }
+  }
+
+  @Test
+  void reportsSpansInByteOffsets() throws IOException {
+    for (String source : corpus()) {
+      byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+      String decoded = new String(bytes, StandardCharsets.UTF_8);
+      int[] byteOffsets = new int[decoded.length() + 1];
+      for (int i = 0; i < decoded.length(); i++) {
+        byteOffsets[i + 1] = byteOffsets[i] + utf8Width(decoded.charAt(i));
+      }
+      List<String> expected = new ArrayList<>();
+      new Lexer()
+          .getTokenSpans(
+              decoded,
+              (type, start, length) ->
+                  expected.add(
+                      type + "|" + byteOffsets[start] + "|" + byteOffsets[start + length]));
+      List<String> spans = new ArrayList<>();
+      new Utf8Lexer()
+          .getTokenSpans(
+              ByteBuffer.wrap(bytes),
+              (type, start, length) -> spans.add(type + "|" + start + "|" + (start + length)));
+      assertEquals(expected, spans, source);
+    }
+  }
+
+  @Test
+  void matchesDecodedSourceTokens() throws IOException {
+    for (String source : corpus()) {
+      byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+      assertEquals(
+          describe(new Lexer().getSourceTokens(new String(bytes, StandardCharsets.UTF_8))),
+          describe(new Utf8Lexer().getSourceTokens(ByteBuffer.wrap(bytes))),
+          source);
+    }
+  }
+
+  @Test
+  void decodesSequencesSplitAcrossScanChunks() {
+    StringBuilder source = new StringBuilder("var a = \"");
+    while (source.length() < 70_000) {
+      source.append("\u00fc\u20ac\ud83d\ude00 ");
+    }
+    source.append("\"; // \u0663\u2028");
+    for (int shift = 0; shift < 4; shift++) {
+      String text = "x".repeat(shift) + source;
+      byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+      assertEquals(
+          describe(new Lexer().getTokens(text)),
+          describe(new Utf8Lexer().getTokens(direct(bytes))),
+          "shift " + shift);
+    }
+  }
+
+  @Test
+  void replacesMalformedBytes() {
+    byte[] bytes = {'a', ' ', (byte) 0xC3, ' ', (byte) 0xFF, ' ', (byte) 0xE2, (byte) 0x82};
+    List<String> expected =
+        describe(new Lexer().getTokens(new String(bytes, StandardCharsets.UTF_8)));
+
+    assertEquals(expected, describe(new Utf8Lexer().getTokens(bytes)));
+    assertEquals(expected, describe(new Utf8Lexer().getTokens(direct(bytes))));
+  }
+
+  private static int utf8Width(char character) {
+    if (character < 0x80) {
+      return 1;
+    } else if (character < 0x800 || Character.isSurrogate(character)) {
+      return 2;
+    }
+    return 3;
+  }
+
+  private static ByteBuffer direct(byte[] bytes) {
+    return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+  }
+}
@@ -0,0 +1,92 @@
+package com.rmv.opk.batch;
+
+import com.rmv.opk.LexerListener;
+import com.rmv.opk.cache.TokenCache;
+import com.rmv.opk.entity.Token;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchLexerTest {
+  private static final String[] SOURCES = {
+    "a", "a ", "int x;\n", "x+", "y '", "// c", "\"s", "s = \"a\\\"b\"; ", "#if X\nint a;\n#endif\n"
+  };
+
+  @TempDir Path directory;
+
+  @Test
+  void statisticsDoNotDependOnHandlerOrCache() throws IOException {
+    List<Path> files = writeSources();
+    BatchStatistics spans = BatchLexer.builder().build().lex(files, null);
+    BatchStatistics tokens = BatchLexer.builder().build().lex(files, (file, list) -> {});
+    BatchStatistics utf8 =
+        BatchLexer.builder().directUtf8(true).build().lex(files, (file, list) -> {});
+    TokenCache tokenCache = new TokenCache(directory.resolve("cache"), 1 << 20);
+    BatchLexer cached = BatchLexer.builder().tokenCache(tokenCache).build();
+    BatchStatistics miss = cached.lex(files, null);
+    BatchStatistics hit = cached.lex(files, null);
+
+    assertTrue(spans.getTokens() > 0);
+    for (BatchStatistics statistics : List.of(tokens, utf8, miss, hit)) {
+      assertEquals(spans.getTokensByType(), statistics.getTokensByType());
+      assertEquals(spans.getFiles(), statistics.getFiles());
+    }
+  }
+
+  @Test
+  void handlerReceivesTokensCoveringTheSource() throws IOException {
+    List<Path> files = writeSources();
+    Map<Path, Integer> counts = new ConcurrentHashMap<>();
+    BatchStatistics statistics =
+        BatchLexer.builder().build().lex(files, (file, tokens) -> counts.put(file, tokens.size()));
+
+    assertEquals(files.size(), counts.size());
+    assertEquals(statistics.getTokens(), counts.values().stream().mapToLong(i -> i).sum());
+    assertEquals(List.of("IDENTIFIER|a"), describe(lexOne(files.get(0))));
+  }
+
+  @Test
+  void tokenCacheRejectsListener() throws IOException {
+    BatchLexer lexer =
+        BatchLexer.builder()
+            .tokenCache(new TokenCache(directory.resolve("cache"), 1 << 20))
+            .listener(new LexerListener() {})
+            .build();
+    assertThrows(IllegalArgumentException.class, () -> lexer.lex(writeSources(), null));
+  }
+
+  private List<Token> lexOne(Path file) {
+    List<Token> result = new ArrayList<>();
+    BatchLexer.builder().build().lex(List.of(file), (path, tokens) -> result.addAll(tokens));
+    return result;
+  }
+
+  private List<Path> writeSources() throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < SOURCES.length; i++) {
+      Path file = directory.resolve(i + ".cs");
+      Files.writeString(file, SOURCES[i]);
+      files.add(file);
+    }
+    return files;
+  }
+
+  private static List<String> describe(List<Token> tokens) {
+    List<String> result = new ArrayList<>();
+    for (Token token : tokens) {
+      result.add(token.getType() + "|" + token.getData());
+    }
+    return result;
+  }
+}
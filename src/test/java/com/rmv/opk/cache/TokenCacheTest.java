@@ -0,0 +1,155 @@
+package com.rmv.opk.cache;
+
+import com.rmv.opk.Lexer;
+import com.rmv.opk.entity.Token;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenCacheTest {
+  private static final byte[] SOURCE =
+      "class A { int x = 42; string s = \"a\\\"b\"; }\n".getBytes(StandardCharsets.UTF_8);
+
+  @TempDir Path directory;
+
+  @Test
+  void missThenHit() throws IOException {
+    TokenCache cache = new TokenCache(directory, 1 << 20);
+    List<Token> expected = new Lexer().getTokens(new String(SOURCE, StandardCharsets.UTF_8));
+
+    assertEquals(describe(expected), describe(cache.getTokens(SOURCE)));
+    assertEquals(describe(expected), describe(cache.getTokens(SOURCE)));
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.getHits());
+    assertEquals(diskSize(), cache.getSizeBytes());
+  }
+
+  @Test
+  void configurationIsPartOfTheKey() throws IOException {
+    TokenCache cache = new TokenCache(directory, 1 << 20);
+    Lexer lexer = new Lexer();
+    cache.getTokens(SOURCE, lexer::getTokens, "first");
+    cache.getTokens(SOURCE, lexer::getSourceTokens, "second");
+    cache.getTokens(SOURCE, lexer::getSourceTokens, "second");
+
+    assertEquals(2, cache.getMisses());
+    assertEquals(1, cache.getHits());
+    assertEquals(2, entries().size());
+  }
+
+  @Test
+  void corruptedEntryIsRelexed() throws IOException {
+    TokenCache cache = new TokenCache(directory, 1 << 20);
+    List<Token> expected = cache.getTokens(SOURCE);
+    Path entry = entries().get(0);
+    byte[] bytes = Files.readAllBytes(entry);
+    byte[] corrupted = new byte[bytes.length + 5];
+    System.arraycopy(bytes, 0, corrupted, 0, bytes.length);
+    for (int i = bytes.length; i < corrupted.length; i++) {
+      corrupted[i] = (byte) 0xFF;
+    }
+    Files.write(entry, corrupted);
+
+    TokenCache reopened = new TokenCache(directory, 1 << 20);
+    assertEquals(describe(expected), describe(reopened.getTokens(SOURCE)));
+    assertEquals(1, reopened.getMisses());
+    assertEquals(diskSize(), reopened.getSizeBytes());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedEntriesOverTheLimit() throws IOException {
+    long entrySize;
+    TokenCache probe = new TokenCache(directory.resolve("probe"), 1 << 20);
+    probe.getTokens(source(0));
+    entrySize = probe.getSizeBytes();
+
+    TokenCache cache = new TokenCache(directory.resolve("cache"), entrySize * 10);
+    for (int i = 0; i < 30; i++) {
+      cache.getTokens(source(i));
+    }
+
+    assertTrue(cache.getEvictions() > 0);
+    assertTrue(cache.getSizeBytes() <= entrySize * 10);
+    assertEquals(diskSize(directory.resolve("cache")), cache.getSizeBytes());
+  }
+
+  @Test
+  void concurrentWritesOfOneKeyAreCountedOnce() throws Exception {
+    TokenCache cache = new TokenCache(directory, 1 << 20);
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<List<Token>>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        Callable<List<Token>> task =
+            () -> {
+              start.await();
+              return cache.getTokens(SOURCE);
+            };
+        results.add(executor.submit(task));
+      }
+      start.countDown();
+      for (Future<List<Token>> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(1, entries().size());
+    assertEquals(diskSize(), cache.getSizeBytes());
+  }
+
+  private static byte[] source(int index) {
+    return ("class C" + index + " { int value" + index + " = " + index + "; }\n")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  private List<Path> entries() throws IOException {
+    return entries(directory);
+  }
+
+  private static List<Path> entries(Path root) throws IOException {
+    List<Path> entries = new ArrayList<>();
+    try (Stream<Path> paths = Files.walk(root)) {
+      paths.filter(path -> path.toString().endsWith(".tokens")).forEach(entries::add);
+    }
+    return entries;
+  }
+
+  private long diskSize() throws IOException {
+    return diskSize(directory);
+  }
+
+  private static long diskSize(Path root) throws IOException {
+    long size = 0;
+    for (Path entry : entries(root)) {
+      size += Files.size(entry);
+    }
+    return size;
+  }
+
+  private static List<String> describe(List<Token> tokens) {
+    List<String> result = new ArrayList<>();
+    for (Token token : tokens) {
+      result.add(token.getType() + "|" + token.getData());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,147 @@
+package com.rmv.opk.io;
+
+import com.rmv.opk.Lexer;
+import com.rmv.opk.entity.Token;
+import com.rmv.opk.entity.TokenSpan;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryTokenRoundTripTest {
+  private static final String ALPHABET =
+      "abcXYZ_019 \t\n\r+-*/=<>!&|^%?:;,.(){}[]'\"\\#@$é€\uD83D\uDE00\uD800\uDC00\uDFFF";
+
+  @Test
+  void tokensRoundTrip() throws IOException {
+    for (String source : corpus()) {
+      List<Token> tokens = new Lexer().getTokens(source);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (BinaryTokenWriter writer = new BinaryTokenWriter(bytes)) {
+        writer.writeAll(tokens);
+      }
+      BinaryTokenReader reader = new BinaryTokenReader(ByteBuffer.wrap(bytes.toByteArray()));
+      assertFalse(reader.hasOffsets());
+      assertEquals(describe(tokens), describe(reader.readAll()));
+    }
+  }
+
+  @Test
+  void spansRoundTrip() throws IOException {
+    for (String source : corpus()) {
+      List<TokenSpan> spans = new Lexer().getTokenSpans(source);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (BinaryTokenWriter writer = new BinaryTokenWriter(bytes, true)) {
+        for (TokenSpan span : spans) {
+          writer.write(span);
+        }
+      }
+      BinaryTokenReader reader = new BinaryTokenReader(ByteBuffer.wrap(bytes.toByteArray()));
+      List<String> decoded = new ArrayList<>();
+      while (reader.advance()) {
+        decoded.add(
+            reader.getType()
+                + "|"
+                + reader.getData()
+                + "|"
+                + reader.getStart()
+                + "|"
+                + reader.getLength());
+      }
+      List<String> expected = new ArrayList<>();
+      for (TokenSpan span : spans) {
+        expected.add(
+            span.getType()
+                + "|"
+                + span.getData()
+                + "|"
+                + span.getStart()
+                + "|"
+                + span.getLength());
+      }
+      assertEquals(expected, decoded);
+    }
+  }
+
+  @Test
+  void truncatedCharacterIsReportedAsCorruption() {
+    byte[] halfOfTwoByteCharacter = {(byte) 0xC3};
+    byte[] twoThirdsOfThreeByteCharacter = {(byte) 0xE2, (byte) 0x82};
+    assertThrows(
+        IllegalStateException.class,
+        () -> TokenBinaryFormat.decode(ByteBuffer.wrap(halfOfTwoByteCharacter), 0, 1));
+    assertThrows(
+        IllegalStateException.class,
+        () -> TokenBinaryFormat.decode(ByteBuffer.wrap(twoThirdsOfThreeByteCharacter), 0, 2));
+  }
+
+  @Test
+  void negativeVarIntsAreReportedAsCorruption() {
+    byte[] minusOne = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+    byte[] identifierType =
+        concat(new byte[] {1, 10}, "IDENTIFIER".getBytes(StandardCharsets.UTF_8));
+    assertCorrupted(streamOf(minusOne));
+    assertCorrupted(streamOf(identifierType, minusOne));
+    assertCorrupted(streamOf(identifierType, new byte[] {0}, minusOne));
+    assertCorrupted(streamOf(identifierType, new byte[] {0, 0}, minusOne));
+  }
+
+  private static void assertCorrupted(byte[] stream) {
+    IllegalStateException exception =
+        assertThrows(
+            IllegalStateException.class,
+            () -> new BinaryTokenReader(ByteBuffer.wrap(stream)).readAll());
+    assertTrue(exception.getMessage().startsWith("Corrupted token stream"));
+  }
+
+  private static byte[] streamOf(byte[]... parts) {
+    ByteBuffer header = ByteBuffer.allocate(6);
+    header.putInt(TokenBinaryFormat.MAGIC).put((byte) TokenBinaryFormat.VERSION).put((byte) 0);
+    return concat(header.array(), concat(parts));
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      bytes.writeBytes(part);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static List<String> corpus() throws IOException {
+    List<String> sources = new ArrayList<>();
+    sources.add(Files.readString(Path.of("csharp.cs")));
+    sources.add(Files.readString(Path.of("csharp_corner_cases.cs")));
+    sources.add("string s = \"\uD83D\uDE00 lone \uD800 and \uDC00\"; // \uD83D\uDE00\n");
+    Random random = new Random(12);
+    for (int i = 0; i < 500; i++) {
+      StringBuilder source = new StringBuilder();
+      int length = random.nextInt(300);
+      for (int j = 0; j < length; j++) {
+        source.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+      sources.add(source.toString());
+    }
+    return sources;
+  }
+
+  private static List<String> describe(List<Token> tokens) {
+    List<String> result = new ArrayList<>();
+    for (Token token : tokens) {
+      result.add(token.getType() + "|" + token.getData());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,148 @@
+package com.rmv.opk.server;
+
+import com.rmv.opk.Lexer;
+import com.rmv.opk.entity.TokenSpan;
+import com.rmv.opk.io.BinaryTokenReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LexerServerTest {
+  private static final String SOURCE = "class A { int x = 42; string s = \"a\"; }\n";
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private LexerServer server;
+  private InetSocketAddress address;
+
+  @AfterEach
+  void stopServer() {
+    server.stop();
+  }
+
+  @Test
+  void lexesDocumentAsJsonLines() throws Exception {
+    start(LexerServer.builder().workers(2).build());
+    HttpResponse<String> response = post("/lex", SOURCE.getBytes(StandardCharsets.UTF_8), null);
+
+    assertEquals(200, response.statusCode());
+    String[] lines = response.body().split("\n");
+    assertEquals(spans(SOURCE).size(), lines.length);
+    assertEquals("{\"type\":\"KEYWORD\",\"data\":\"class\"}", lines[0]);
+  }
+
+  @Test
+  void lexesDocumentAsBinary() throws Exception {
+    start(LexerServer.builder().workers(2).build());
+    HttpResponse<byte[]> response =
+        client.send(
+            request("/lex?format=binary", SOURCE.getBytes(StandardCharsets.UTF_8), null),
+            HttpResponse.BodyHandlers.ofByteArray());
+
+    assertEquals(200, response.statusCode());
+    BinaryTokenReader reader = new BinaryTokenReader(ByteBuffer.wrap(response.body()));
+    List<String> decoded = new ArrayList<>();
+    reader.forEachRemaining(token -> decoded.add(token.getType() + "|" + token.getData()));
+    List<String> expected = new ArrayList<>();
+    for (TokenSpan span : spans(SOURCE)) {
+      expected.add(span.getType() + "|" + span.getData());
+    }
+    assertEquals(expected, decoded);
+  }
+
+  @Test
+  void separatesBatchedDocuments() throws Exception {
+    start(LexerServer.builder().workers(2).build());
+    String first = "int a;";
+    String second = "b = 1;\n";
+    HttpResponse<String> response =
+        post(
+            "/lex",
+            (first + second).getBytes(StandardCharsets.UTF_8),
+            first.length() + "," + second.length());
+
+    assertEquals(200, response.statusCode());
+    String[] lines = response.body().split("\n");
+    assertEquals("{\"document\":0}", lines[0]);
+    assertEquals("{\"document\":1}", lines[1 + spans(first).size()]);
+    assertEquals(2 + spans(first).size() + spans(second).size(), lines.length);
+  }
+
+  @Test
+  void rejectsInvalidRequests() throws Exception {
+    start(LexerServer.builder().workers(2).maxRequestBytes(16).build());
+    byte[] body = "int a;".getBytes(StandardCharsets.UTF_8);
+
+    HttpResponse<String> get =
+        client.send(
+            HttpRequest.newBuilder(uri("/lex")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+    assertEquals(405, get.statusCode());
+    assertEquals(400, post("/lex?format=xml", body, null).statusCode());
+    assertEquals(400, post("/lex", body, "1,2").statusCode());
+    assertEquals(413, post("/lex", new byte[17], null).statusCode());
+    assertEquals(4, server.getStatistics().getFailedRequests());
+  }
+
+  @Test
+  void reportsStatistics() throws Exception {
+    start(LexerServer.builder().workers(2).build());
+    post("/lex", SOURCE.getBytes(StandardCharsets.UTF_8), null);
+
+    HttpResponse<String> stats =
+        client.send(
+            HttpRequest.newBuilder(uri("/stats")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, stats.statusCode());
+    assertTrue(stats.body().startsWith("{\"requests\":1,\"failedRequests\":0,\"documents\":1,"));
+    assertTrue(stats.body().contains("\"tokens\":" + spans(SOURCE).size() + ","));
+  }
+
+  @Test
+  void limitsTokenLength() throws Exception {
+    start(LexerServer.builder().workers(1).maxTokenLength(8).build());
+    HttpResponse<String> response =
+        post("/lex", "x = abcdefghijklmnop;".getBytes(StandardCharsets.UTF_8), null);
+
+    assertTrue(response.body().contains("{\"type\":\"ERROR\",\"data\":\"abcdefghijklmnop\"}"));
+  }
+
+  private void start(LexerServer lexerServer) throws IOException {
+    server = lexerServer;
+    address = server.start();
+  }
+
+  private HttpResponse<String> post(String path, byte[] body, String documentLengths)
+      throws IOException, InterruptedException {
+    return client.send(request(path, body, documentLengths), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpRequest request(String path, byte[] body, String documentLengths) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofByteArray(body));
+    if (documentLengths != null) {
+      builder.header("X-Document-Lengths", documentLengths);
+    }
+    return builder.build();
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://" + address.getHostString() + ":" + address.getPort() + path);
+  }
+
+  private static List<TokenSpan> spans(String source) {
+    return new Lexer().getTokenSpans(source);
+  }
+}
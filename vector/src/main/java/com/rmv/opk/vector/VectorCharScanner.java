@@ -0,0 +1,63 @@
+package com.rmv.opk.vector;
+
+import com.rmv.opk.CharScanner;
+import com.rmv.opk.ScalarCharScanner;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorCharScanner implements CharScanner {
+  private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+  @Override
+  public int indexOf(char[] chars, int from, int to, char target) {
+    int i = from;
+    for (int bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+      int lane = ShortVector.fromCharArray(SPECIES, chars, i).eq((short) target).firstTrue();
+      if (lane < SPECIES.length()) {
+        return i + lane;
+      }
+    }
+    return ScalarCharScanner.INSTANCE.indexOf(chars, i, to, target);
+  }
+
+  @Override
+  public int indexOfLineBreakCandidate(char[] chars, int from, int to) {
+    int i = from;
+    for (int bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+      ShortVector vector = ShortVector.fromCharArray(SPECIES, chars, i);
+      VectorMask<Short> control =
+          vector.compare(VectorOperators.UNSIGNED_LT, (short) ' ').andNot(vector.eq((short) '\t'));
+      int lane = control.or(vector.compare(VectorOperators.UNSIGNED_GE, (short) 0x80)).firstTrue();
+      if (lane < SPECIES.length()) {
+        return i + lane;
+      }
+    }
+    return ScalarCharScanner.INSTANCE.indexOfLineBreakCandidate(chars, i, to);
+  }
+
+  @Override
+  public int indexOfNonWhitespace(char[] chars, int from, int to) {
+    int i = from;
+    for (int bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+      ShortVector vector = ShortVector.fromCharArray(SPECIES, chars, i);
+      VectorMask<Short> whitespace =
+          vector
+              .eq((short) ' ')
+              .or(inRange(vector, '\t', '\r'))
+              .or(inRange(vector, '\u001c', '\u001f'));
+      int lane = whitespace.not().firstTrue();
+      if (lane < SPECIES.length()) {
+        return i + lane;
+      }
+    }
+    return ScalarCharScanner.INSTANCE.indexOfNonWhitespace(chars, i, to);
+  }
+
+  private static VectorMask<Short> inRange(ShortVector vector, char low, char high) {
+    return vector
+        .sub((short) low)
+        .compare(VectorOperators.UNSIGNED_LE, (short) (high - low));
+  }
+}